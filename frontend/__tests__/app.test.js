@@ -12,6 +12,7 @@ import { rest } from 'msw';
 import getUsers from '../__fixtures__/executors.js';
 import getLabels from '../__fixtures__/labels.js';
 import getStatuses from '../__fixtures__/statuses.js';
+import getTasks from '../__fixtures__/tasks.js';
 
 import mocks from '../mocks/mocks.js';
 
@@ -175,6 +176,41 @@ describe('work', () => {
   });
 });
 
+describe('paged tasks', () => {
+  const pagedTasks = [1, 2, 3].map((id) => ({ ...getTasks()[0], id, name: `Задача со страницы ${id}` }));
+
+  beforeEach(async () => {
+    // One task per page: the list is whole only if every cursor is followed
+    server.use(rest.get('/api/tasks', (req, res, ctx) => {
+      const index = Number(req.url.searchParams.get('cursor') ?? 0);
+      const transformers = [ctx.status(200), ctx.json([pagedTasks[index]])];
+      if (index + 1 < pagedTasks.length) {
+        transformers.push(ctx.set('X-Next-Cursor', String(index + 1)));
+      }
+      return res(...transformers);
+    }));
+    userEvent.click(await screen.findByRole('link', { name: /Вход/i }));
+    userEvent.type(await screen.findByLabelText(/Email/i), user.email);
+    userEvent.type(await screen.findByLabelText(/Пароль/i), user.password);
+    userEvent.click(await screen.findByRole('button', { name: /Войти/i }));
+  });
+
+  test('tasks of every page are listed', async () => {
+    userEvent.click(await screen.findByText(/Задачи/i));
+    await Promise.all(pagedTasks.map(async ({ name }) => {
+      expect(await screen.findByText(name)).toBeInTheDocument();
+    }));
+  });
+
+  test('tasks of every page are found by the filter', async () => {
+    userEvent.click(await screen.findByText(/Задачи/i));
+    userEvent.click(await screen.findByRole('button', { name: /Показать/i }));
+    await Promise.all(pagedTasks.map(async ({ name }) => {
+      expect(await screen.findByText(name)).toBeInTheDocument();
+    }));
+  });
+});
+
 describe('user', () => {
   test('create user', async () => {
     userEvent.click(await screen.findByText(/Регистрация/i));
@@ -33,6 +33,7 @@ import NewTask from './Tasks/NewTask.jsx';
 import EditTask from './Tasks/EditTask.jsx';
 
 import routes from '../routes.js';
+import fetchAllTasks from '../fetchAllTasks.js';
 
 import { actions as usersActions } from '../slices/usersSlice.js';
 import { actions as labelsActions } from '../slices/labelsSlice.js';
@@ -100,7 +101,7 @@ const App = () => {
       {
         name: 'tasks',
         getData: async () => {
-          const { data } = await axios.get(routes.apiTasks(), { headers: auth.getAuthHeader() });
+          const data = await fetchAllTasks({}, auth.getAuthHeader());
           if (!Array.isArray(data)) {
             notify.addError('Сервер не вернул список задач');
             dispatch(tasksActions.addTasks([]));
@@ -0,0 +1,31 @@
+// @ts-check
+
+import axios from 'axios';
+
+import routes from './routes.js';
+
+// The server answers a page of tasks and, until the last page, the cursor of the next one in this header
+const nextCursorHeader = 'x-next-cursor';
+
+// Follows the cursors, so that the list is whole however many tasks there are.
+// An answer that is not a list is returned as is for the caller to report
+const fetchAllTasks = async (params, headers) => {
+  const tasks = [];
+  let cursor = null;
+  do {
+    // Each page needs the cursor of the previous one
+    // eslint-disable-next-line no-await-in-loop
+    const { data, headers: responseHeaders } = await axios.get(routes.apiTasks(), {
+      params: cursor ? { ...params, cursor } : params,
+      headers,
+    });
+    if (!Array.isArray(data)) {
+      return data;
+    }
+    tasks.push(...data);
+    cursor = responseHeaders[nextCursorHeader];
+  } while (cursor);
+  return tasks;
+};
+
+export default fetchAllTasks;
@@ -13,6 +13,7 @@ import App from './components/App.jsx';
 import AuthProvider from './providers/AuthProvider.jsx';
 import NotificationProvider from './providers/NotificationProvider.jsx';
 import resources from './locales/index.js';
+import setupTokenRefresh from './tokenRefresh.js';
 
 import store from './slices/index.js';
 
@@ -29,6 +30,8 @@ const app = async () => {
     enabled: isProduction,
   };
 
+  setupTokenRefresh();
+
   const i18n = i18next.createInstance();
 
   await i18n
@@ -1,13 +1,21 @@
 // @ts-check
 
 import React, { useState } from 'react';
+import axios from 'axios';
 
 import { AuthContext } from '../contexts/index.js';
+import routes from '../routes.js';
 
 const AuthProvider = ({ children }) => {
   const currentUser = JSON.parse(localStorage.getItem('user'));
   const [user, setUser] = useState(currentUser || null);
 
+  const getAuthHeader = () => {
+    const userData = JSON.parse(localStorage.getItem('user')) ?? {};
+
+    return userData.token ? { Authorization: `Bearer ${userData.token}` } : {};
+  };
+
   const logIn = (userData) => {
     const userAuth = {
       ...userData,
@@ -27,16 +35,12 @@ const AuthProvider = ({ children }) => {
   };
 
   const logOut = () => {
+    // Revokes the tokens on the server; the local session ends even if that fails
+    axios.post(routes.apiLogout(), null, { headers: getAuthHeader() }).catch(() => {});
     localStorage.removeItem('user');
     setUser(null);
   };
 
-  const getAuthHeader = () => {
-    const userData = JSON.parse(localStorage.getItem('user')) ?? {};
-
-    return userData.token ? { Authorization: `Bearer ${userData.token}` } : {};
-  };
-
   return (
     <AuthContext.Provider value={{
       logIn,
@@ -47,6 +47,8 @@ const routes = {
   apiUsers: buildUrl('users'),
   apiUser: (id) => `${buildUrl('users')()}/${id}`,
   apiLogin: buildUrl('login'),
+  apiRefresh: buildUrl('refresh'),
+  apiLogout: buildUrl('logout'),
 };
 
 export default routes;
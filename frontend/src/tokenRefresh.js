@@ -0,0 +1,52 @@
+// @ts-check
+
+import axios from 'axios';
+
+import routes from './routes.js';
+
+// Concurrent requests that fail together wait for the same refresh:
+// the refresh token is rotated on use, so a second refresh with it would be rejected
+const state = { refreshing: null };
+
+// The server answers a missing, expired or revoked access token with 401
+const isAccessTokenRejected = (error) => error.response?.status === 401;
+
+const isAuthRequest = (url) => [routes.apiLogin(), routes.apiRefresh(), routes.apiLogout()].includes(url);
+
+const refreshAccessToken = () => {
+  if (!state.refreshing) {
+    state.refreshing = axios.post(routes.apiRefresh())
+      .then(({ data }) => {
+        const token = data.trim();
+        const user = JSON.parse(localStorage.getItem('user'));
+        localStorage.setItem('user', JSON.stringify({ ...user, token }));
+        return token;
+      })
+      .finally(() => {
+        state.refreshing = null;
+      });
+  }
+  return state.refreshing;
+};
+
+const setupTokenRefresh = () => {
+  axios.interceptors.response.use(null, async (error) => {
+    const { config } = error;
+    const user = JSON.parse(localStorage.getItem('user'));
+    if (!config || config.isRetry || !user?.token || isAuthRequest(config.url) || !isAccessTokenRejected(error)) {
+      return Promise.reject(error);
+    }
+    try {
+      const token = await refreshAccessToken();
+      return await axios({
+        ...config,
+        isRetry: true,
+        headers: { ...config.headers, Authorization: `Bearer ${token}` },
+      });
+    } catch (e) {
+      return Promise.reject(e.config?.isRetry ? e : error);
+    }
+  });
+};
+
+export default setupTokenRefresh;
@@ -0,0 +1,49 @@
+package hexlet.code.component;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static hexlet.code.component.JWTUtils.USER_ID_CLAIM;
+import static org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter.SPRING_SECURITY_FORM_USERNAME_KEY;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class JWTUtilsBenchmark {
+
+    private static final Map<String, Object> ATTRIBUTES = Map.of(
+            SPRING_SECURITY_FORM_USERNAME_KEY, "benchmark@example.com",
+            USER_ID_CLAIM, 1L
+    );
+
+    @Param({"HS256", "ES256", "ED25519"})
+    private JWTKeys.Algorithm algorithm;
+
+    private JWTUtils jwtUtils;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        jwtUtils = new JWTUtils("kar_task_manager", 900L, 1209600L, 300L, JWTKeys.generate(algorithm));
+        token = jwtUtils.createJWSToken(ATTRIBUTES);
+    }
+
+    @Benchmark
+    public String createToken() {
+        return jwtUtils.createJWSToken(ATTRIBUTES);
+    }
+
+    @Benchmark
+    public Map<String, Object> readToken() {
+        return jwtUtils.readJWSToken(token);
+    }
+}
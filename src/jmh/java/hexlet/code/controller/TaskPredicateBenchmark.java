@@ -0,0 +1,75 @@
+package hexlet.code.controller;
+
+import com.querydsl.core.types.Predicate;
+import hexlet.code.entity.Label;
+import hexlet.code.entity.QTask;
+import hexlet.code.entity.Task;
+import hexlet.code.entity.TaskStatus;
+import hexlet.code.entity.User;
+import hexlet.code.repository.TaskRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.data.querydsl.SimpleEntityPathResolver;
+import org.springframework.data.querydsl.binding.QuerydslBindings;
+import org.springframework.data.querydsl.binding.QuerydslBindingsFactory;
+import org.springframework.data.querydsl.binding.QuerydslPredicateBuilder;
+import org.springframework.data.util.TypeInformation;
+import org.springframework.format.support.DefaultFormattingConversionService;
+import org.springframework.util.LinkedMultiValueMap;
+import org.springframework.util.MultiValueMap;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Proxy;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Builds the filter of {@code GET /api/tasks} from request params, with the bindings of {@link TaskRepository}.
+ * Every param is a bound path, unknown ones would be skipped by the builder and not measured.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class TaskPredicateBenchmark {
+
+    private static final TypeInformation<Task> TASK_TYPE = TypeInformation.of(Task.class);
+
+    private QuerydslPredicateBuilder predicateBuilder;
+    private QuerydslBindings bindings;
+    private MultiValueMap<String, String> params;
+
+    @Setup
+    public void setUp() {
+        // In the application entities are converted from ids by the repositories, here without a database
+        final DefaultFormattingConversionService conversionService = new DefaultFormattingConversionService();
+        conversionService.addConverter(String.class, TaskStatus.class,
+                id -> new TaskStatus(Long.valueOf(id), null, null, null, null));
+        conversionService.addConverter(String.class, Label.class,
+                id -> new Label(Long.valueOf(id), null, null, null, null));
+        conversionService.addConverter(String.class, User.class,
+                id -> User.builder().id(Long.valueOf(id)).build());
+
+        predicateBuilder = new QuerydslPredicateBuilder(conversionService, SimpleEntityPathResolver.INSTANCE);
+        bindings = new QuerydslBindingsFactory(SimpleEntityPathResolver.INSTANCE).createBindingsFor(TASK_TYPE);
+        // Only the default customize method is called on the proxy, as the argument resolver does with the bean
+        final TaskRepository repository = (TaskRepository) Proxy.newProxyInstance(
+                TaskRepository.class.getClassLoader(), new Class<?>[] {TaskRepository.class},
+                InvocationHandler::invokeDefault);
+        repository.customize(bindings, QTask.task);
+
+        params = new LinkedMultiValueMap<>();
+        params.add("taskStatus", "1");
+        params.add("executor", "2");
+        params.add("labels", "3");
+        params.add("author", "4");
+    }
+
+    @Benchmark
+    public Predicate buildPredicate() {
+        return predicateBuilder.getPredicate(TASK_TYPE, params, bindings);
+    }
+}
@@ -0,0 +1,84 @@
+package hexlet.code.dto;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import hexlet.code.entity.Label;
+import hexlet.code.entity.Task;
+import hexlet.code.entity.TaskStatus;
+import hexlet.code.entity.User;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.Date;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+/**
+ * Serializes tasks the way the controllers answer: entity graph mapped to {@link TaskResponseDto}, then to JSON.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class TaskSerializationBenchmark {
+
+    private static final int LABELS_PER_TASK = 3;
+
+    // A single task and a full default page
+    @Param({"1", "100"})
+    private int taskCount;
+
+    private ObjectMapper objectMapper;
+    private List<Task> tasks;
+
+    @Setup
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+        final Date now = new Date();
+        final TaskStatus taskStatus = new TaskStatus(1L, "В работе", now, now, 0L);
+        final User author = user(1L, "author@example.com");
+        final User executor = user(2L, "executor@example.com");
+        final Set<Label> labels = Set.copyOf(LongStream.rangeClosed(1, LABELS_PER_TASK)
+                .mapToObj(id -> new Label(id, "label " + id, now, now, 0L))
+                .toList());
+
+        tasks = LongStream.rangeClosed(1, taskCount)
+                .mapToObj(id -> Task.builder()
+                        .id(id)
+                        .name("Task " + id)
+                        .description("Description of the task number " + id)
+                        .taskStatus(taskStatus)
+                        .author(author)
+                        .executor(executor)
+                        .labels(labels)
+                        .createdAt(now)
+                        .build())
+                .toList();
+    }
+
+    @Benchmark
+    public byte[] serializeTasks() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(tasks.stream()
+                .map(TaskResponseDto::from)
+                .toList());
+    }
+
+    private static User user(final Long id, final String email) {
+        return User.builder()
+                .id(id)
+                .email(email)
+                .firstName("John")
+                .lastName("Clark")
+                .password("hash")
+                .build();
+    }
+}
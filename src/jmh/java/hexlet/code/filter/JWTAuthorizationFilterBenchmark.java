@@ -0,0 +1,65 @@
+package hexlet.code.filter;
+
+import hexlet.code.component.JWTClaimsCache;
+import hexlet.code.component.JWTKeys;
+import hexlet.code.component.JWTUtils;
+import hexlet.code.component.TokenDenylist;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import jakarta.servlet.ServletException;
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.springframework.http.HttpHeaders.AUTHORIZATION;
+import static org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter.SPRING_SECURITY_FORM_USERNAME_KEY;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class JWTAuthorizationFilterBenchmark {
+
+    private static final long CACHE_SIZE = 10_000;
+
+    @Param({"true", "false"})
+    private boolean cacheEnabled;
+
+    private JWTAuthorizationFilter filter;
+    private String authorizationHeader;
+
+    @Setup
+    public void setUp() {
+        final JWTUtils jwtUtils = new JWTUtils("kar_task_manager", 900L, 1209600L, 300L,
+                JWTKeys.of(JWTKeys.Algorithm.HS256, "kar_secret", "", ""));
+        final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        final JWTClaimsCache jwtClaimsCache = new JWTClaimsCache(jwtUtils, cacheEnabled, CACHE_SIZE, meterRegistry);
+        // The denylist is checked in memory only, the repository is used by its scheduled sync
+        final TokenDenylist tokenDenylist = new TokenDenylist(null);
+        filter = new JWTAuthorizationFilter(request -> false, jwtClaimsCache, tokenDenylist, meterRegistry);
+        authorizationHeader = "Bearer " + jwtUtils.createJWSToken(
+                Map.of(SPRING_SECURITY_FORM_USERNAME_KEY, "benchmark@example.com"));
+    }
+
+    @Benchmark
+    public MockHttpServletResponse authorizeRequest() throws ServletException, IOException {
+        final MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/tasks");
+        request.addHeader(AUTHORIZATION, authorizationHeader);
+        final MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(request, response, new MockFilterChain());
+        SecurityContextHolder.clearContext();
+        return response;
+    }
+}
@@ -0,0 +1,81 @@
+package hexlet.code.service;
+
+import hexlet.code.AppApplication;
+import hexlet.code.config.security.AuthenticatedUser;
+import hexlet.code.dto.LabelDto;
+import hexlet.code.dto.TaskDto;
+import hexlet.code.dto.TaskStatusDto;
+import hexlet.code.dto.UserDto;
+import hexlet.code.entity.Task;
+import hexlet.code.entity.User;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static hexlet.code.config.security.SecurityConfig.DEFAULT_AUTHORITIES;
+
+/**
+ * Creates a task with a status, an executor and labels through the service over an in-memory H2,
+ * which covers resolving the references of the dto and the insert itself.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class TaskServiceBenchmark {
+
+    private ConfigurableApplicationContext context;
+    private TaskService taskService;
+    private TaskDto taskDto;
+
+    @Setup
+    public void setUp() {
+        // Passed as arguments to take precedence over application.yml
+        context = new SpringApplicationBuilder(AppApplication.class).run(
+                "--server.port=0",
+                "--spring.datasource.url=jdbc:h2:mem:jmh;DB_CLOSE_DELAY=-1",
+                "--spring.jpa.show-sql=false",
+                "--logging.level.root=WARN"
+        );
+        taskService = context.getBean(TaskService.class);
+
+        final User user = context.getBean(UserService.class)
+                .createNewUser(new UserDto("benchmark@example.com", "John", "Clark", "password"));
+        final Long taskStatusId = context.getBean(TaskStatusService.class)
+                .createNewTaskStatus(new TaskStatusDto("Новый")).getId();
+        final LabelService labelService = context.getBean(LabelService.class);
+        final Set<Long> labelIds = Stream.of("bug", "feature", "docs")
+                .map(name -> labelService.createNewLabel(new LabelDto(name)).getId())
+                .collect(Collectors.toSet());
+        taskDto = new TaskDto("Task", "Description", taskStatusId, user.getId(), labelIds);
+
+        // The benchmark thread isn't the one running the setup
+        SecurityContextHolder.setStrategyName(SecurityContextHolder.MODE_GLOBAL);
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                new AuthenticatedUser(user.getId(), user.getEmail()), null, DEFAULT_AUTHORITIES));
+    }
+
+    @TearDown
+    public void tearDown() {
+        SecurityContextHolder.clearContext();
+        context.close();
+    }
+
+    @Benchmark
+    public Task createTask() {
+        return taskService.createNewTask(taskDto);
+    }
+}
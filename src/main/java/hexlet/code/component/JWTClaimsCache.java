@@ -0,0 +1,99 @@
+package hexlet.code.component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.util.Base64;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps claims of already verified tokens, so that a token repeated by the same client
+ * is parsed and its signature is checked only once until it expires.
+ */
+@Component
+public class JWTClaimsCache {
+
+    public static final String CACHE_NAME = "jwt.claims";
+
+    private static final String DIGEST_ALGORITHM = "SHA-256";
+
+    private final JWTUtils jwtUtils;
+    private final boolean enabled;
+    private final Cache<String, Map<String, Object>> cache;
+
+    @Autowired
+    public JWTClaimsCache(final JWTUtils jwtUtils,
+                          @Value("${jwt.cache.enabled:true}") final boolean enabled,
+                          @Value("${jwt.cache.max-size:10000}") final long maxSize,
+                          final MeterRegistry meterRegistry) {
+        this(jwtUtils, enabled, maxSize, meterRegistry, Clock.systemUTC());
+    }
+
+    // Entries expire by the same clock the token expiration is compared with, tests pass one they can move
+    JWTClaimsCache(final JWTUtils jwtUtils, final boolean enabled, final long maxSize,
+                   final MeterRegistry meterRegistry, final Clock clock) {
+        this.jwtUtils = jwtUtils;
+        this.enabled = enabled;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .ticker(() -> TimeUnit.MILLISECONDS.toNanos(clock.millis()))
+                .expireAfter(new ExpireAtTokenExpiration())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+    }
+
+    public Map<String, Object> readJWSToken(final String token) {
+        if (!enabled) {
+            return jwtUtils.readJWSToken(token);
+        }
+        return cache.get(digest(token), key -> Map.copyOf(jwtUtils.readJWSToken(token)));
+    }
+
+    private static String digest(final String token) {
+        try {
+            final byte[] hash = MessageDigest.getInstance(DIGEST_ALGORITHM)
+                    .digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static final class ExpireAtTokenExpiration implements Expiry<String, Map<String, Object>> {
+
+        @Override
+        public long expireAfterCreate(final String key, final Map<String, Object> claims, final long currentTime) {
+            if (!(claims.get(Claims.EXPIRATION) instanceof Number expiration)) {
+                return Long.MAX_VALUE;
+            }
+            // The ticker counts wall clock time, so the current time is comparable with the expiration
+            final long nanosToExpiration = TimeUnit.SECONDS.toNanos(expiration.longValue()) - currentTime;
+            return Math.max(nanosToExpiration, 0);
+        }
+
+        @Override
+        public long expireAfterUpdate(final String key, final Map<String, Object> claims,
+                                      final long currentTime, final long currentDuration) {
+            return currentDuration;
+        }
+
+        @Override
+        public long expireAfterRead(final String key, final Map<String, Object> claims,
+                                    final long currentTime, final long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package hexlet.code.component;
+
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Jwks;
+import io.jsonwebtoken.security.Keys;
+
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.Key;
+import java.security.KeyFactory;
+import java.security.KeyPair;
+import java.security.MessageDigest;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.security.spec.X509EncodedKeySpec;
+import java.util.Base64;
+
+/**
+ * Keys are built once at startup. With an asymmetric algorithm only the public key
+ * has to be shared with other services to let them verify the tokens.
+ */
+public record JWTKeys(Key signingKey, Key verificationKey) {
+
+    public enum Algorithm {
+        HS256("HmacSHA256"),
+        ES256("EC"),
+        ED25519("Ed25519");
+
+        private final String keyAlgorithm;
+
+        Algorithm(final String keyAlgorithm) {
+            this.keyAlgorithm = keyAlgorithm;
+        }
+    }
+
+    private static final String PEM_BOUNDARY = "-----[A-Z ]+-----";
+    private static final String SECRET_DIGEST_ALGORITHM = "SHA-256";
+
+    /**
+     * @param secret     HMAC secret, hashed to a 256-bit key, so that a secret of any length can be used
+     * @param privateKey PKCS#8 private key, base64 or PEM, for ES256 and ED25519
+     * @param publicKey  X.509 public key, base64 or PEM, for ES256 and ED25519
+     */
+    public static JWTKeys of(final Algorithm algorithm,
+                             final String secret,
+                             final String privateKey,
+                             final String publicKey) {
+        if (algorithm == Algorithm.HS256) {
+            return symmetric(Keys.hmacShaKeyFor(sha256(secret)));
+        }
+        if (privateKey.isBlank() || publicKey.isBlank()) {
+            throw new IllegalStateException("jwt.private-key and jwt.public-key are required for " + algorithm);
+        }
+        try {
+            final KeyFactory keyFactory = KeyFactory.getInstance(algorithm.keyAlgorithm);
+            return asymmetric(new KeyPair(
+                    keyFactory.generatePublic(new X509EncodedKeySpec(decodePem(publicKey))),
+                    keyFactory.generatePrivate(new PKCS8EncodedKeySpec(decodePem(privateKey)))
+            ));
+        } catch (GeneralSecurityException | IllegalArgumentException e) {
+            throw new IllegalStateException("Can't read " + algorithm + " keys for JWT signing", e);
+        }
+    }
+
+    /**
+     * Random keys for a single process, e.g. for benchmarks. Tokens signed with them can't be checked elsewhere.
+     */
+    public static JWTKeys generate(final Algorithm algorithm) {
+        return switch (algorithm) {
+            case HS256 -> symmetric(Jwts.SIG.HS256.key().build());
+            case ES256 -> asymmetric(Jwts.SIG.ES256.keyPair().build());
+            case ED25519 -> asymmetric(Jwks.CRV.Ed25519.keyPair().build());
+        };
+    }
+
+    private static JWTKeys symmetric(final Key key) {
+        return new JWTKeys(key, key);
+    }
+
+    private static JWTKeys asymmetric(final KeyPair keyPair) {
+        return new JWTKeys(keyPair.getPrivate(), keyPair.getPublic());
+    }
+
+    private static byte[] decodePem(final String key) {
+        return Base64.getMimeDecoder().decode(key.replaceAll(PEM_BOUNDARY, "").strip());
+    }
+
+    private static byte[] sha256(final String secret) {
+        try {
+            return MessageDigest.getInstance(SECRET_DIGEST_ALGORITHM).digest(secret.getBytes(StandardCharsets.UTF_8));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
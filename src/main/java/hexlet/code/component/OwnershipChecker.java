@@ -0,0 +1,60 @@
+package hexlet.code.component;
+
+import hexlet.code.config.security.AuthenticatedUser;
+import hexlet.code.repository.TaskRepository;
+import hexlet.code.repository.UserRepository;
+import hexlet.code.repository.WebhookRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+
+import java.util.NoSuchElementException;
+import java.util.Optional;
+
+/**
+ * Ownership checks used by {@code @PreAuthorize} as {@code @ownership}. Owner ids are read with a single query
+ * by primary key instead of loading the entity.
+ */
+@Component("ownership")
+@RequiredArgsConstructor
+public class OwnershipChecker {
+
+    private final TaskRepository taskRepository;
+    private final UserRepository userRepository;
+    private final WebhookRepository webhookRepository;
+
+    /**
+     * @throws NoSuchElementException if there is no task with that id
+     */
+    public boolean isTaskAuthor(final long taskId) {
+        final Long authorId = taskRepository.findAuthorIdById(taskId)
+                .orElseThrow(NoSuchElementException::new);
+        return getCurrentUserId().filter(authorId::equals).isPresent();
+    }
+
+    /**
+     * @throws NoSuchElementException if there is no webhook with that id
+     */
+    public boolean isWebhookOwner(final long webhookId) {
+        final Long ownerId = webhookRepository.findOwnerIdById(webhookId)
+                .orElseThrow(NoSuchElementException::new);
+        return getCurrentUserId().filter(ownerId::equals).isPresent();
+    }
+
+    public boolean isCurrentUser(final long userId) {
+        return getCurrentUserId().filter(id -> id == userId).isPresent();
+    }
+
+    private Optional<Long> getCurrentUserId() {
+        final Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null) {
+            return Optional.empty();
+        }
+        if (authentication.getPrincipal() instanceof AuthenticatedUser user && user.id() != null) {
+            return Optional.of(user.id());
+        }
+        // Tokens issued before the user id claim was added carry only the email
+        return userRepository.findIdByEmail(authentication.getName());
+    }
+}
@@ -0,0 +1,116 @@
+package hexlet.code.component;
+
+import hexlet.code.exception.LoginOverloadedException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import lombok.Getter;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Runs password checks of logins on a small dedicated pool, so that a login storm can't take every request thread.
+ * The request thread waits for its check, so the queue holds only a couple of checks per pool thread and the wait
+ * is short: a few request threads at most are blocked behind BCrypt. Logins over the pool and queue capacity are
+ * rejected at once instead of waiting.
+ */
+@Component
+public class PasswordHashingExecutor implements DisposableBean {
+
+    public static final String EXECUTOR_NAME = "login.password.hashing";
+    public static final String CHECK_METRIC_NAME = "login.password.check";
+    private static final int QUEUED_CHECKS_PER_THREAD = 2;
+
+    private final ThreadPoolExecutor executor;
+    private final long timeoutMillis;
+    @Getter
+    private final Duration retryAfter;
+    private final Timer successTimer;
+    private final Timer failureTimer;
+
+    public PasswordHashingExecutor(@Value("${security.login.threads:0}") final int threads,
+                                   @Value("${security.login.queue-capacity:0}") final int queueCapacity,
+                                   @Value("${security.login.timeout:1s}") final Duration timeout,
+                                   @Value("${security.login.retry-after:1s}") final Duration retryAfter,
+                                   final MeterRegistry meterRegistry) {
+        final int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        final AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity > 0 ? queueCapacity : poolSize * QUEUED_CHECKS_PER_THREAD),
+                runnable -> {
+                    final Thread thread = new Thread(runnable, EXECUTOR_NAME + "-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        this.timeoutMillis = timeout.toMillis();
+        this.retryAfter = retryAfter;
+        ExecutorServiceMetrics.monitor(meterRegistry, executor, EXECUTOR_NAME, List.of());
+        this.successTimer = checkTimer(meterRegistry, "SUCCESS");
+        this.failureTimer = checkTimer(meterRegistry, "FAILURE");
+    }
+
+    public <T> T execute(final Supplier<T> task) throws AuthenticationException {
+        final Future<T> future;
+        try {
+            future = executor.submit(() -> timed(task));
+        } catch (RejectedExecutionException e) {
+            throw new LoginOverloadedException("Too many concurrent logins");
+        }
+
+        try {
+            return future.get(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            throw new LoginOverloadedException("Login is not processed in time");
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new LoginOverloadedException("Login is interrupted");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    // Time spent on the pool thread, mostly by BCrypt; waiting in the queue is seen in the executor metrics
+    private <T> T timed(final Supplier<T> task) {
+        final long start = System.nanoTime();
+        boolean success = false;
+        try {
+            final T result = task.get();
+            success = true;
+            return result;
+        } finally {
+            (success ? successTimer : failureTimer).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private static Timer checkTimer(final MeterRegistry meterRegistry, final String outcome) {
+        return Timer.builder(CHECK_METRIC_NAME)
+                .description("Password checks of logins")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+}
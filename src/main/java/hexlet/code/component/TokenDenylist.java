@@ -0,0 +1,82 @@
+package hexlet.code.component;
+
+import hexlet.code.entity.RevokedToken;
+import hexlet.code.repository.RevokedTokenRepository;
+import io.jsonwebtoken.Claims;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static hexlet.code.component.JWTUtils.USER_ID_CLAIM;
+
+/**
+ * In-memory copy of the {@code revoked_tokens} table, so that every request is checked without a database call.
+ * Revocations made on this node apply at once, the ones made on other nodes after the next sync.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class TokenDenylist {
+
+    private final RevokedTokenRepository revokedTokenRepository;
+
+    // jti -> expiration of the revoked token
+    private final Map<String, Instant> revokedTokens = new ConcurrentHashMap<>();
+    private final Map<Long, UserRevocation> revokedUsers = new ConcurrentHashMap<>();
+
+    public boolean isRevoked(final Map<String, Object> claims) {
+        final Object tokenId = claims.get(Claims.ID);
+        if (tokenId != null && revokedTokens.containsKey(tokenId.toString())) {
+            return true;
+        }
+        if (!(claims.get(USER_ID_CLAIM) instanceof Number userId)
+                || !(claims.get(Claims.ISSUED_AT) instanceof Number issuedAt)) {
+            return false;
+        }
+        final UserRevocation revocation = revokedUsers.get(userId.longValue());
+        // iat has a second precision, so a token issued in the same second as the revocation is revoked too
+        return revocation != null && issuedAt.longValue() <= revocation.revokedBefore().getEpochSecond();
+    }
+
+    public void add(final RevokedToken revokedToken) {
+        final Instant expiresAt = revokedToken.getExpiresAt().toInstant();
+        if (revokedToken.getTokenId() != null) {
+            revokedTokens.put(revokedToken.getTokenId(), expiresAt);
+        }
+        if (revokedToken.getUserId() != null && revokedToken.getRevokedBefore() != null) {
+            final var revocation = new UserRevocation(revokedToken.getRevokedBefore().toInstant(), expiresAt);
+            revokedUsers.merge(revokedToken.getUserId(), revocation, UserRevocation::latest);
+        }
+    }
+
+    // The table holds only unexpired revocations, so it is small enough to be read whole
+    @Scheduled(fixedDelayString = "${jwt.denylist.sync-interval-ms:5000}")
+    public void sync() {
+        final Instant now = Instant.now();
+        revokedTokenRepository.findAllByExpiresAtAfter(Date.from(now)).forEach(this::add);
+        revokedTokens.values().removeIf(expiresAt -> !expiresAt.isAfter(now));
+        revokedUsers.values().removeIf(revocation -> !revocation.expiresAt().isAfter(now));
+    }
+
+    @Scheduled(fixedDelayString = "${jwt.denylist.purge-interval-ms:3600000}")
+    public void purge() {
+        final int deleted = revokedTokenRepository.deleteExpired(new Date());
+        log.debug("Purged {} expired token revocations", deleted);
+    }
+
+    private record UserRevocation(Instant revokedBefore, Instant expiresAt) {
+
+        private UserRevocation latest(final UserRevocation other) {
+            return new UserRevocation(
+                    revokedBefore.isAfter(other.revokedBefore) ? revokedBefore : other.revokedBefore,
+                    expiresAt.isAfter(other.expiresAt) ? expiresAt : other.expiresAt
+            );
+        }
+    }
+}
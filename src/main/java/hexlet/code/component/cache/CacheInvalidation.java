@@ -0,0 +1,4 @@
+package hexlet.code.component.cache;
+
+public record CacheInvalidation(String cacheName, Long id) {
+}
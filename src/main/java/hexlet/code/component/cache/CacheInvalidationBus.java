@@ -0,0 +1,9 @@
+package hexlet.code.component.cache;
+
+/**
+ * Delivers cache invalidations to every application node, the local one included.
+ * Local entries are evicted before {@link #publish} returns.
+ */
+public interface CacheInvalidationBus {
+    void publish(CacheInvalidation invalidation);
+}
@@ -0,0 +1,49 @@
+package hexlet.code.component.cache;
+
+import hexlet.code.entity.Label;
+import hexlet.code.entity.TaskStatus;
+import hexlet.code.event.EntityChangedEvent;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+
+import static hexlet.code.config.CacheConfiguration.LABELS_CACHE;
+import static hexlet.code.config.CacheConfiguration.TASK_STATUSES_CACHE;
+
+/**
+ * Invalidates the cache of every entity type below when an entity of that type changes.
+ * Each cache of the cache manager must be listed, so a new cache fails the startup instead of going stale.
+ */
+@Component
+public class CacheInvalidationListener {
+
+    private static final Map<Class<?>, String> CACHES = Map.of(
+            TaskStatus.class, TASK_STATUSES_CACHE,
+            Label.class, LABELS_CACHE
+    );
+
+    private final CacheInvalidationBus cacheInvalidationBus;
+
+    public CacheInvalidationListener(final CacheInvalidationBus cacheInvalidationBus,
+                                     final CacheManager cacheManager) {
+        this.cacheInvalidationBus = cacheInvalidationBus;
+        final Collection<String> unwiredCaches = cacheManager.getCacheNames().stream()
+                .filter(cacheName -> !CACHES.containsValue(cacheName))
+                .toList();
+        if (!unwiredCaches.isEmpty()) {
+            throw new IllegalStateException("No entity invalidates caches " + unwiredCaches);
+        }
+    }
+
+    // After commit, otherwise a concurrent read could put the old state back before the change is visible
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEntityChanged(final EntityChangedEvent event) {
+        Optional.ofNullable(CACHES.get(event.entityType()))
+                .map(cacheName -> new CacheInvalidation(cacheName, event.id()))
+                .ifPresent(cacheInvalidationBus::publish);
+    }
+}
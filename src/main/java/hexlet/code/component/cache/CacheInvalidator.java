@@ -0,0 +1,28 @@
+package hexlet.code.component.cache;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+
+import java.util.Optional;
+
+import static hexlet.code.config.CacheConfiguration.ALL_KEY;
+
+@Component
+@RequiredArgsConstructor
+public class CacheInvalidator {
+
+    private final CacheManager cacheManager;
+
+    public void evict(final CacheInvalidation invalidation) {
+        Optional.ofNullable(cacheManager.getCache(invalidation.cacheName()))
+                .ifPresent(cache -> {
+                    Optional.ofNullable(invalidation.id()).ifPresent(cache::evict);
+                    cache.evict(ALL_KEY);
+                });
+    }
+
+    public void evictAll() {
+        cacheManager.getCacheNames().forEach(name -> cacheManager.getCache(name).clear());
+    }
+}
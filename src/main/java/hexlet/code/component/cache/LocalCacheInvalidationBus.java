@@ -0,0 +1,21 @@
+package hexlet.code.component.cache;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+/**
+ * Single node bus for H2 and tests: invalidations loop back to the local caches only.
+ */
+@Component
+@Profile("!prod")
+@RequiredArgsConstructor
+public class LocalCacheInvalidationBus implements CacheInvalidationBus {
+
+    private final CacheInvalidator cacheInvalidator;
+
+    @Override
+    public void publish(final CacheInvalidation invalidation) {
+        cacheInvalidator.evict(invalidation);
+    }
+}
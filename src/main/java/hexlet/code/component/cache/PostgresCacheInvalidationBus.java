@@ -0,0 +1,147 @@
+package hexlet.code.component.cache;
+
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Broadcasts invalidations to the other nodes with PostgreSQL NOTIFY.
+ * Every node LISTENs on a dedicated connection outside the pool and evicts its local entries on each notification.
+ */
+@Slf4j
+@Component
+@Profile("prod")
+public class PostgresCacheInvalidationBus implements CacheInvalidationBus, SmartLifecycle {
+
+    private static final String CHANNEL = "cache_invalidation";
+    private static final String SEPARATOR = "|";
+
+    private final String nodeId = UUID.randomUUID().toString();
+    private final CacheInvalidator cacheInvalidator;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final DataSourceProperties dataSourceProperties;
+    private final int pollTimeoutMillis;
+    private final long reconnectDelayMillis;
+
+    private volatile boolean running;
+    private Thread listenerThread;
+
+    public PostgresCacheInvalidationBus(final CacheInvalidator cacheInvalidator,
+                                        final JdbcTemplate jdbcTemplate,
+                                        final PlatformTransactionManager transactionManager,
+                                        final DataSourceProperties dataSourceProperties,
+                                        @Value("${cache.invalidation.poll-timeout-ms:500}") final int pollTimeoutMillis,
+                                        @Value("${cache.invalidation.reconnect-delay-ms:1000}")
+                                        final long reconnectDelayMillis) {
+        this.cacheInvalidator = cacheInvalidator;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        // Publishing happens after commit of the writing transaction, NOTIFY must not join its connection
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.dataSourceProperties = dataSourceProperties;
+        this.pollTimeoutMillis = pollTimeoutMillis;
+        this.reconnectDelayMillis = reconnectDelayMillis;
+    }
+
+    @Override
+    public void publish(final CacheInvalidation invalidation) {
+        cacheInvalidator.evict(invalidation);
+        final String payload = String.join(SEPARATOR, nodeId, invalidation.cacheName(),
+                Optional.ofNullable(invalidation.id()).map(String::valueOf).orElse(""));
+        // The write is committed already, so a failed NOTIFY must not fail the request.
+        // Other nodes keep the stale entry until its TTL expires
+        try {
+            transactionTemplate.executeWithoutResult(status ->
+                    jdbcTemplate.query("SELECT pg_notify(?, ?)", resultSet -> null, CHANNEL, payload));
+        } catch (RuntimeException e) {
+            log.error("Cache invalidation {} is not sent to other nodes", payload, e);
+        }
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        listenerThread = new Thread(this::listen, CHANNEL + "-listener");
+        listenerThread.setDaemon(true);
+        listenerThread.start();
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        listenerThread.interrupt();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void listen() {
+        while (running) {
+            try (Connection connection = DriverManager.getConnection(dataSourceProperties.determineUrl(),
+                    dataSourceProperties.determineUsername(), dataSourceProperties.determinePassword());
+                 Statement statement = connection.createStatement()) {
+                statement.execute("LISTEN " + CHANNEL);
+                // Notifications sent while this node was not listening are lost
+                cacheInvalidator.evictAll();
+
+                final PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                while (running) {
+                    final PGNotification[] notifications = pgConnection.getNotifications(pollTimeoutMillis);
+                    if (notifications != null) {
+                        for (PGNotification notification : notifications) {
+                            receive(notification.getParameter());
+                        }
+                    }
+                }
+            } catch (SQLException | RuntimeException e) {
+                // The thread must outlive any failure, a node that stops listening serves stale entries forever
+                if (running) {
+                    log.warn("Cache invalidation listener disconnected, reconnecting", e);
+                    sleepBeforeReconnect();
+                }
+            }
+        }
+    }
+
+    private void receive(final String payload) {
+        try {
+            final String[] parts = payload.split("\\" + SEPARATOR, -1);
+            if (parts.length != 3 || nodeId.equals(parts[0])) {
+                return;
+            }
+            final Long id = parts[2].isEmpty() ? null : Long.valueOf(parts[2]);
+            cacheInvalidator.evict(new CacheInvalidation(parts[1], id));
+        } catch (RuntimeException e) {
+            // Evicting everything is the only safe answer to an invalidation that can't be applied
+            log.warn("Cache invalidation {} can't be applied, evicting all entries", payload, e);
+            cacheInvalidator.evictAll();
+        }
+    }
+
+    private void sleepBeforeReconnect() {
+        try {
+            Thread.sleep(reconnectDelayMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
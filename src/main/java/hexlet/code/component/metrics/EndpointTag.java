@@ -0,0 +1,35 @@
+package hexlet.code.component.metrics;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.servlet.HandlerMapping;
+
+/**
+ * Tags metrics with the endpoint of the current request, e.g. {@code GET /api/tasks/{id}}.
+ * The mapping pattern rather than the actual URI keeps the number of time series bounded.
+ */
+public final class EndpointTag {
+
+    public static final String NAME = "endpoint";
+    // Same values as the uri tag of http.server.requests
+    public static final String UNKNOWN = "UNKNOWN";
+    public static final String NONE = "none";
+
+    private EndpointTag() {
+    }
+
+    public static String of(final HttpServletRequest request) {
+        final Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return pattern == null ? UNKNOWN : request.getMethod() + " " + pattern;
+    }
+
+    /**
+     * Endpoint of the request bound to the current thread, {@link #NONE} for scheduled and other background calls.
+     */
+    public static String current() {
+        return RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes
+                ? of(attributes.getRequest())
+                : NONE;
+    }
+}
@@ -0,0 +1,104 @@
+package hexlet.code.component.metrics;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Collects statements executed on the current thread between {@link #start()} and {@link #stop()},
+ * which the request filter uses to report the number of statements and the database time of every request.
+ * Slow statements executed outside of a request, e.g. by scheduled jobs, are logged at once.
+ */
+@Slf4j
+@Component
+public class QueryRecorder {
+
+    private static final ThreadLocal<Queries> CURRENT = new ThreadLocal<>();
+
+    private final long slowQueryNanos;
+
+    public QueryRecorder(@Value("${db.query-stats.slow-query-threshold:200ms}") final Duration slowQueryThreshold) {
+        this.slowQueryNanos = slowQueryThreshold.toNanos();
+    }
+
+    public Queries start() {
+        final Queries queries = new Queries();
+        CURRENT.set(queries);
+        return queries;
+    }
+
+    public void stop() {
+        CURRENT.remove();
+    }
+
+    public void record(final String sql, final long elapsedNanos) {
+        final Queries queries = CURRENT.get();
+        final boolean slow = elapsedNanos >= slowQueryNanos;
+        if (queries != null) {
+            queries.add(sql, elapsedNanos, slow);
+        } else if (slow) {
+            log.warn("Slow query outside of a request took {} ms: {}", TimeUnit.NANOSECONDS.toMillis(elapsedNanos),
+                    sql);
+        }
+    }
+
+    /**
+     * Statements of one request. Repeats of the same SQL are grouped, which is how an N+1 shows up.
+     */
+    public static final class Queries {
+        @Getter
+        private int count;
+        @Getter
+        private long totalNanos;
+        private final Map<String, Query> bySql = new LinkedHashMap<>();
+        @Getter
+        private final List<Query> slowQueries = new ArrayList<>();
+
+        private void add(final String sql, final long elapsedNanos, final boolean slow) {
+            count++;
+            totalNanos += elapsedNanos;
+            bySql.computeIfAbsent(sql, Query::new).add(elapsedNanos);
+            if (slow) {
+                slowQueries.add(new Query(sql).add(elapsedNanos));
+            }
+        }
+
+        public List<Query> getMostRepeated(final int limit) {
+            return bySql.values().stream()
+                    .sorted(Comparator.comparingInt(Query::getCount).reversed())
+                    .limit(limit)
+                    .toList();
+        }
+    }
+
+    @Getter
+    public static final class Query {
+        private final String sql;
+        private int count;
+        private long totalNanos;
+
+        private Query(final String sql) {
+            this.sql = sql;
+        }
+
+        private Query add(final long elapsedNanos) {
+            count++;
+            totalNanos += elapsedNanos;
+            return this;
+        }
+
+        @Override
+        public String toString() {
+            return count + " x " + TimeUnit.NANOSECONDS.toMillis(totalNanos) + " ms: " + sql;
+        }
+    }
+}
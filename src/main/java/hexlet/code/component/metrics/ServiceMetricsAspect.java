@@ -0,0 +1,48 @@
+package hexlet.code.component.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.stereotype.Component;
+
+/**
+ * Times every call of the service layer. The count of the timer doubles as the call counter,
+ * failed calls are told apart by the outcome and exception tags.
+ */
+@Aspect
+@Component
+public class ServiceMetricsAspect {
+
+    public static final String METRIC_NAME = "service.calls";
+    public static final String SUCCESS = "SUCCESS";
+    public static final String ERROR = "ERROR";
+
+    private final MeterRegistry meterRegistry;
+
+    public ServiceMetricsAspect(final MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Around("execution(public * hexlet.code.service.*Service+.*(..))")
+    public Object time(final ProceedingJoinPoint joinPoint) throws Throwable {
+        final Timer.Sample sample = Timer.start(meterRegistry);
+        Throwable failure = null;
+        try {
+            return joinPoint.proceed();
+        } catch (Throwable e) {
+            failure = e;
+            throw e;
+        } finally {
+            sample.stop(Timer.builder(METRIC_NAME)
+                    .description("Calls of service methods")
+                    .tag("service", joinPoint.getSignature().getDeclaringType().getSimpleName())
+                    .tag("method", joinPoint.getSignature().getName())
+                    .tag(EndpointTag.NAME, EndpointTag.current())
+                    .tag("outcome", failure == null ? SUCCESS : ERROR)
+                    .tag("exception", failure == null ? EndpointTag.NONE : failure.getClass().getSimpleName())
+                    .register(meterRegistry));
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package hexlet.code.component.outbox;
+
+import hexlet.code.entity.OutboxEvent;
+
+import java.util.List;
+
+/**
+ * Receives outbox events from the relay in the order they were written. A batch is handed over in the relay
+ * transaction that holds its rows, so a handler should only enqueue the events. A thrown exception rolls the batch
+ * back and it is handed over again on the next poll, so handlers must tolerate duplicates.
+ */
+public interface OutboxEventHandler {
+
+    void handle(List<OutboxEvent> events);
+}
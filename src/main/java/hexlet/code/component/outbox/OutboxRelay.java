@@ -0,0 +1,159 @@
+package hexlet.code.component.outbox;
+
+import hexlet.code.entity.OutboxEvent;
+import hexlet.code.repository.OutboxEventRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Reads committed outbox events in batches, hands them to the handlers and deletes them in the same transaction.
+ * An event is deleted only after every handler has accepted it, so it is delivered at least once.
+ * <p>
+ * When a batch fails, its events are retried one by one, so that a single bad event doesn't hold back the others.
+ * An event that fails is retried with exponential backoff and parked after {@code max-attempts}: it stays in the
+ * table with {@code parked_at} set and is no longer read.
+ * <p>
+ * Batches are locked with SKIP LOCKED, so relays of several nodes share the table without waiting for each other.
+ * Events are ordered within a batch, but batches of different nodes may be handled concurrently.
+ */
+@Slf4j
+@Component
+public class OutboxRelay {
+
+    public static final String EVENTS_METRIC_NAME = "outbox.relay.events";
+    public static final String FAILURES_METRIC_NAME = "outbox.relay.failures";
+    public static final String PARKED_METRIC_NAME = "outbox.relay.parked";
+    public static final String LAG_METRIC_NAME = "outbox.relay.lag";
+    public static final String OLDEST_AGE_METRIC_NAME = "outbox.relay.oldest.age";
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final List<OutboxEventHandler> handlers;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final Counter dispatchedCounter;
+    private final Counter failureCounter;
+    private final Counter parkedCounter;
+    private final Timer lagTimer;
+    // Age of the oldest pending event as of the last poll
+    private final AtomicLong oldestAgeMillis = new AtomicLong();
+
+    @Value("${outbox.relay.max-attempts:10}")
+    private int maxAttempts;
+
+    @Value("${outbox.relay.initial-backoff:1s}")
+    private Duration initialBackoff;
+
+    @Value("${outbox.relay.max-backoff:10m}")
+    private Duration maxBackoff;
+
+    public OutboxRelay(final OutboxEventRepository outboxEventRepository,
+                       final ObjectProvider<OutboxEventHandler> handlers,
+                       final PlatformTransactionManager transactionManager,
+                       @Value("${outbox.relay.batch-size:100}") final int batchSize,
+                       final MeterRegistry meterRegistry) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.handlers = handlers.orderedStream().toList();
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.dispatchedCounter = Counter.builder(EVENTS_METRIC_NAME)
+                .description("Outbox events dispatched to the handlers")
+                .register(meterRegistry);
+        this.failureCounter = Counter.builder(FAILURES_METRIC_NAME)
+                .description("Outbox batches rolled back to be retried")
+                .register(meterRegistry);
+        this.parkedCounter = Counter.builder(PARKED_METRIC_NAME)
+                .description("Outbox events given up after the last attempt")
+                .register(meterRegistry);
+        this.lagTimer = Timer.builder(LAG_METRIC_NAME)
+                .description("Time from writing an outbox event to dispatching it")
+                .register(meterRegistry);
+        TimeGauge.builder(OLDEST_AGE_METRIC_NAME, oldestAgeMillis, TimeUnit.MILLISECONDS, AtomicLong::get)
+                .description("Age of the oldest pending outbox event")
+                .register(meterRegistry);
+    }
+
+    // Drains the table while batches come full, then waits for the next poll
+    @Scheduled(fixedDelayString = "${outbox.relay.poll-interval-ms:1000}")
+    public void relay() {
+        boolean first = true;
+        List<OutboxEvent> events;
+        do {
+            final List<Long> ids = new ArrayList<>();
+            try {
+                events = transactionTemplate.execute(status -> dispatchBatch(ids));
+            } catch (RuntimeException e) {
+                failureCounter.increment();
+                log.warn("Outbox batch is not dispatched, its events are retried one by one", e);
+                ids.forEach(this::dispatchOne);
+                return;
+            }
+            if (first) {
+                oldestAgeMillis.set(events.isEmpty() ? 0
+                        : System.currentTimeMillis() - events.get(0).getCreatedAt().getTime());
+                first = false;
+            }
+            recordDispatched(events);
+        } while (events.size() == batchSize);
+    }
+
+    private List<OutboxEvent> dispatchBatch(final List<Long> ids) {
+        final List<OutboxEvent> events = outboxEventRepository.findBatch(new Date(), PageRequest.ofSize(batchSize));
+        events.forEach(event -> ids.add(event.getId()));
+        if (!events.isEmpty()) {
+            handlers.forEach(handler -> handler.handle(events));
+            outboxEventRepository.deleteAllInBatch(events);
+        }
+        return events;
+    }
+
+    private void dispatchOne(final Long id) {
+        try {
+            transactionTemplate.execute(status -> outboxEventRepository.findPendingById(id)
+                            .map(event -> {
+                                handlers.forEach(handler -> handler.handle(List.of(event)));
+                                outboxEventRepository.delete(event);
+                                return event;
+                            }))
+                    .ifPresent(event -> recordDispatched(List.of(event)));
+        } catch (RuntimeException e) {
+            transactionTemplate.executeWithoutResult(status -> outboxEventRepository.findById(id)
+                    .ifPresent(event -> scheduleRetry(event, e)));
+        }
+    }
+
+    private void scheduleRetry(final OutboxEvent event, final RuntimeException cause) {
+        event.setAttempts(event.getAttempts() + 1);
+        if (event.getAttempts() >= maxAttempts) {
+            log.error("Outbox event {} is parked after {} attempts", event.getId(), event.getAttempts(), cause);
+            event.setParkedAt(new Date());
+            parkedCounter.increment();
+            return;
+        }
+        final long backoff = Math.min(maxBackoff.toMillis(),
+                initialBackoff.toMillis() << Math.min(event.getAttempts() - 1, 30));
+        event.setNextAttemptAt(new Date(System.currentTimeMillis() + backoff));
+    }
+
+    private void recordDispatched(final List<OutboxEvent> events) {
+        final long now = System.currentTimeMillis();
+        events.forEach(event -> lagTimer.record(now - event.getCreatedAt().getTime(), TimeUnit.MILLISECONDS));
+        dispatchedCounter.increment(events.size());
+    }
+}
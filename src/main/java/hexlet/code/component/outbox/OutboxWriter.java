@@ -0,0 +1,97 @@
+package hexlet.code.component.outbox;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import hexlet.code.dto.TaskResponseDto;
+import hexlet.code.entity.OutboxEvent;
+import hexlet.code.event.TaskChangedEvent;
+import hexlet.code.repository.OutboxEventRepository;
+import hexlet.code.repository.TaskRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.IllegalTransactionStateException;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import static hexlet.code.event.TaskChangedEvent.Type.DELETED;
+
+/**
+ * Writes task changes to the outbox table in the transaction that makes them. Events are collected during the
+ * transaction and written just before its commit, with the tasks as they are committed.
+ */
+@Component
+@RequiredArgsConstructor
+public class OutboxWriter {
+    public static final String TASK_EVENT_PREFIX = "task.";
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final TaskRepository taskRepository;
+    private final ObjectMapper objectMapper;
+
+    @EventListener
+    public void onTaskChanged(final TaskChangedEvent event) {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            throw new IllegalTransactionStateException("Task changes must be made in a transaction");
+        }
+        pendingEvents().add(event);
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<TaskChangedEvent> pendingEvents() {
+        final var events = (List<TaskChangedEvent>) TransactionSynchronizationManager.getResource(this);
+        if (events != null) {
+            return events;
+        }
+        final List<TaskChangedEvent> newEvents = new ArrayList<>();
+        TransactionSynchronizationManager.bindResource(this, newEvents);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void beforeCommit(final boolean readOnly) {
+                write(newEvents);
+            }
+
+            @Override
+            public void afterCompletion(final int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(OutboxWriter.this);
+            }
+        });
+        return newEvents;
+    }
+
+    // Flushed once for the whole transaction: a change violating a constraint fails with its own error
+    // instead of failing here while the task is read for the payload
+    private void write(final List<TaskChangedEvent> events) {
+        outboxEventRepository.flush();
+        outboxEventRepository.saveAll(events.stream()
+                .map(event -> OutboxEvent.builder()
+                        .eventType(TASK_EVENT_PREFIX + event.type().name().toLowerCase(Locale.ROOT))
+                        .aggregateId(event.id())
+                        .payload(toJson(getPayload(event)))
+                        .build())
+                .toList());
+    }
+
+    // Tasks are already in the persistence context, a task created and deleted in one transaction is sent by id
+    private Object getPayload(final TaskChangedEvent event) {
+        if (event.type() == DELETED) {
+            return Map.of("id", event.id());
+        }
+        return taskRepository.findById(event.id())
+                .<Object>map(TaskResponseDto::from)
+                .orElseGet(() -> Map.of("id", event.id()));
+    }
+
+    private String toJson(final Object payload) {
+        try {
+            return objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package hexlet.code.component.webhook;
+
+/**
+ * Opens after a number of consecutive failures and stays open for a while. The first delivery after that is a trial:
+ * a success closes the circuit, a failure opens it again.
+ */
+final class CircuitBreaker {
+    private final int failureThreshold;
+    private final long openMillis;
+
+    private int consecutiveFailures;
+    private long openUntil;
+
+    CircuitBreaker(final int failureThreshold, final long openMillis) {
+        this.failureThreshold = failureThreshold;
+        this.openMillis = openMillis;
+    }
+
+    synchronized void onSuccess() {
+        consecutiveFailures = 0;
+        openUntil = 0;
+    }
+
+    synchronized void onFailure() {
+        consecutiveFailures++;
+        if (consecutiveFailures >= failureThreshold) {
+            openUntil = System.currentTimeMillis() + openMillis;
+        }
+    }
+
+    synchronized long remainingOpenMillis() {
+        return Math.max(0, openUntil - System.currentTimeMillis());
+    }
+
+    boolean isOpen() {
+        return remainingOpenMillis() > 0;
+    }
+}
@@ -0,0 +1,69 @@
+package hexlet.code.component.webhook;
+
+import org.apache.hc.client5.http.DnsResolver;
+import org.apache.hc.client5.http.SystemDefaultDnsResolver;
+
+import java.net.Inet6Address;
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.Collection;
+import java.util.Locale;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Refuses webhook hosts that resolve to an address of the server's own networks, so that a subscription can't make
+ * the server POST to itself, to a cloud metadata endpoint or to internal services. It is the resolver of the HTTP
+ * client, so the addresses it checks are the ones the client connects to, and a record changed after the check
+ * can't point the connection elsewhere. TLS still verifies the host name, not the address.
+ */
+final class WebhookAddressFilter implements DnsResolver {
+    private final Set<String> allowedHosts;
+
+    // Allowed hosts skip the check, e.g. receivers on the same host in development
+    WebhookAddressFilter(final Collection<String> allowedHosts) {
+        this.allowedHosts = allowedHosts.stream()
+                .map(host -> host.toLowerCase(Locale.ROOT))
+                .collect(Collectors.toUnmodifiableSet());
+    }
+
+    /**
+     * @throws InternalAddressException if the host resolves to an internal address
+     * @throws UnknownHostException if the host can't be resolved
+     */
+    @Override
+    public InetAddress[] resolve(final String host) throws UnknownHostException {
+        final InetAddress[] addresses = SystemDefaultDnsResolver.INSTANCE.resolve(host);
+        if (allowedHosts.contains(host.toLowerCase(Locale.ROOT))) {
+            return addresses;
+        }
+        for (InetAddress address : addresses) {
+            if (isInternal(address)) {
+                throw new InternalAddressException(host);
+            }
+        }
+        return addresses;
+    }
+
+    @Override
+    public String resolveCanonicalHostname(final String host) throws UnknownHostException {
+        return SystemDefaultDnsResolver.INSTANCE.resolveCanonicalHostname(host);
+    }
+
+    private static boolean isInternal(final InetAddress address) {
+        return address.isLoopbackAddress()
+                || address.isLinkLocalAddress()
+                || address.isSiteLocalAddress()
+                || address.isAnyLocalAddress()
+                || address.isMulticastAddress()
+                // Unique local IPv6 addresses, fc00::/7
+                || address instanceof Inet6Address && (address.getAddress()[0] & 0xfe) == 0xfc;
+    }
+
+    // An UnknownHostException, so that the client passes it through unwrapped like any failed resolution
+    static final class InternalAddressException extends UnknownHostException {
+        InternalAddressException(final String host) {
+            super("Host " + host + " resolves to an internal address");
+        }
+    }
+}
@@ -0,0 +1,321 @@
+package hexlet.code.component.webhook;
+
+import hexlet.code.component.outbox.OutboxEventHandler;
+import hexlet.code.entity.OutboxEvent;
+import hexlet.code.entity.Webhook;
+import hexlet.code.entity.WebhookDelivery;
+import hexlet.code.repository.WebhookDeliveryRepository;
+import hexlet.code.repository.WebhookRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Delivers outbox events to the subscribed URLs. The relay saves a delivery row per event and webhook in its own
+ * transaction, so events survive a restart and are delivered at least once. Due rows are claimed by a poller and
+ * POSTed from a worker pool in batches, so the relay never waits for a receiver.
+ * <p>
+ * Claimed rows are leased by moving their next attempt forward, so the rows of a node that stops are claimed again
+ * once the lease runs out. A delivered batch is deleted. A failed one is retried with exponential backoff and parked
+ * after {@code max-attempts}, as are the rows of a refused host. Webhooks of the same URL and secret get their events
+ * in the same batches, and a node sends one batch of a webhook at a time. Every URL has its own circuit breaker:
+ * while it is open, rows of that URL are put off and other URLs are unaffected.
+ */
+@Slf4j
+@Component
+public class WebhookDispatcher implements OutboxEventHandler, DisposableBean {
+
+    public static final String EXECUTOR_NAME = "webhooks";
+    public static final String PARKED_METRIC_NAME = "webhooks.deliveries.parked";
+    public static final String OPEN_CIRCUITS_METRIC_NAME = "webhooks.circuits.open";
+
+    // NOT IN () is not valid SQL, and no webhook has id 0
+    private static final List<Long> NO_WEBHOOKS = List.of(0L);
+    private static final int MAX_ERROR_LENGTH = 255;
+
+    private final WebhookRepository webhookRepository;
+    private final WebhookDeliveryRepository webhookDeliveryRepository;
+    private final WebhookSender sender;
+    private final TransactionTemplate transactionTemplate;
+    private final ThreadPoolExecutor executor;
+    private final Map<String, CircuitBreaker> circuitBreakers = new ConcurrentHashMap<>();
+    // Webhooks with a batch in flight on this node
+    private final Set<Long> busyWebhookIds = ConcurrentHashMap.newKeySet();
+    private final Counter retriesExhaustedCounter;
+    private final Counter addressRefusedCounter;
+
+    @Value("${webhooks.delivery.batch-size:50}")
+    private int batchSize;
+
+    @Value("${webhooks.delivery.max-attempts:8}")
+    private int maxAttempts;
+
+    @Value("${webhooks.delivery.initial-backoff:1s}")
+    private Duration initialBackoff;
+
+    @Value("${webhooks.delivery.max-backoff:5m}")
+    private Duration maxBackoff;
+
+    @Value("${webhooks.delivery.lease:5m}")
+    private Duration lease;
+
+    @Value("${webhooks.circuit.failure-threshold:5}")
+    private int failureThreshold;
+
+    @Value("${webhooks.circuit.open-duration:30s}")
+    private Duration openDuration;
+
+    public WebhookDispatcher(@Value("${webhooks.delivery.threads:4}") final int threads,
+                             final WebhookRepository webhookRepository,
+                             final WebhookDeliveryRepository webhookDeliveryRepository,
+                             final WebhookSender sender,
+                             final PlatformTransactionManager transactionManager,
+                             final MeterRegistry meterRegistry) {
+        this.webhookRepository = webhookRepository;
+        this.webhookDeliveryRepository = webhookDeliveryRepository;
+        this.sender = sender;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        final AtomicInteger threadNumber = new AtomicInteger();
+        // Its queue holds at most one delivery per URL and secret of a poll
+        this.executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(),
+                runnable -> {
+                    final Thread thread = new Thread(runnable, EXECUTOR_NAME + "-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        ExecutorServiceMetrics.monitor(meterRegistry, executor, EXECUTOR_NAME, List.of());
+        this.retriesExhaustedCounter = parkedCounter(meterRegistry, "retries_exhausted");
+        this.addressRefusedCounter = parkedCounter(meterRegistry, "address_refused");
+        Gauge.builder(OPEN_CIRCUITS_METRIC_NAME, circuitBreakers, map -> map.values().stream()
+                        .filter(CircuitBreaker::isOpen)
+                        .count())
+                .description("Webhook URLs with an open circuit")
+                .register(meterRegistry);
+    }
+
+    // Runs in the relay transaction, the rows are saved if and only if the events are deleted
+    @Override
+    public void handle(final List<OutboxEvent> events) {
+        final Set<String> eventTypes = events.stream()
+                .map(OutboxEvent::getEventType)
+                .collect(Collectors.toSet());
+        final Map<String, List<Webhook>> webhooksByEventType = webhookRepository.findAllByEventTypeIn(eventTypes)
+                .stream()
+                .collect(Collectors.groupingBy(Webhook::getEventType));
+        if (webhooksByEventType.isEmpty()) {
+            return;
+        }
+        final Date now = new Date();
+        final List<WebhookDelivery> deliveries = events.stream()
+                .flatMap(event -> webhooksByEventType.getOrDefault(event.getEventType(), List.of()).stream()
+                        .map(webhook -> WebhookDelivery.builder()
+                                .webhook(webhook)
+                                .eventId(event.getId())
+                                .eventType(event.getEventType())
+                                .payload(event.getPayload())
+                                .eventCreatedAt(event.getCreatedAt())
+                                .nextAttemptAt(now)
+                                .build()))
+                .toList();
+        webhookDeliveryRepository.saveAll(deliveries);
+    }
+
+    // Nothing is claimed while every worker is busy, so claimed rows don't wait in the queue until their lease ends
+    @Scheduled(fixedDelayString = "${webhooks.delivery.poll-interval-ms:1000}")
+    public void poll() {
+        if (executor.getActiveCount() + executor.getQueue().size() >= executor.getMaximumPoolSize()) {
+            return;
+        }
+        final Collection<Claim> claims;
+        try {
+            claims = transactionTemplate.execute(status -> claim());
+        } catch (RuntimeException e) {
+            log.warn("Webhook deliveries are not claimed, they are claimed on the next poll", e);
+            return;
+        }
+        for (Claim claim : claims) {
+            busyWebhookIds.addAll(claim.webhookIds());
+            try {
+                executor.execute(() -> deliver(claim));
+            } catch (RejectedExecutionException e) {
+                // The dispatcher is shut down, the rows are claimed again once their lease runs out
+                busyWebhookIds.removeAll(claim.webhookIds());
+            }
+        }
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+
+    private Collection<Claim> claim() {
+        final Date now = new Date();
+        final List<Long> excludedWebhookIds = busyWebhookIds.isEmpty() ? NO_WEBHOOKS : List.copyOf(busyWebhookIds);
+        final List<WebhookDelivery> due = webhookDeliveryRepository.findDue(now, excludedWebhookIds,
+                PageRequest.ofSize(batchSize * executor.getMaximumPoolSize()));
+        if (due.isEmpty()) {
+            return List.of();
+        }
+        webhookDeliveryRepository.postpone(ids(due), new Date(now.getTime() + lease.toMillis()));
+        final Set<Long> webhookIds = due.stream()
+                .map(delivery -> delivery.getWebhook().getId())
+                .collect(Collectors.toSet());
+        final Map<Long, Webhook> webhooks = webhookRepository.findAllById(webhookIds).stream()
+                .collect(Collectors.toMap(Webhook::getId, Function.identity()));
+        final Map<EndpointKey, Claim> claims = new LinkedHashMap<>();
+        for (WebhookDelivery delivery : due) {
+            final Webhook webhook = webhooks.get(delivery.getWebhook().getId());
+            final Claim claim = claims.computeIfAbsent(EndpointKey.of(webhook), key ->
+                    new Claim(URI.create(key.url()), key.secret(), new HashSet<>(), new ArrayList<>()));
+            claim.webhookIds().add(webhook.getId());
+            claim.deliveries().add(delivery);
+        }
+        return claims.values();
+    }
+
+    private void deliver(final Claim claim) {
+        try {
+            final List<WebhookDelivery> deliveries = claim.deliveries();
+            for (int from = 0; from < deliveries.size(); from += batchSize) {
+                final List<WebhookDelivery> batch = deliveries.subList(from,
+                        Math.min(from + batchSize, deliveries.size()));
+                final List<WebhookDelivery> rest = deliveries.subList(from + batch.size(), deliveries.size());
+                if (!deliverBatch(claim, batch, rest)) {
+                    break;
+                }
+            }
+        } catch (RuntimeException e) {
+            log.warn("Webhook deliveries to {} failed, they are claimed again once their lease runs out",
+                    claim.uri(), e);
+        } finally {
+            busyWebhookIds.removeAll(claim.webhookIds());
+        }
+    }
+
+    // Returns false if the rest of the claim has to wait as well, it then keeps its place behind the batch
+    private boolean deliverBatch(final Claim claim, final List<WebhookDelivery> batch,
+                                 final List<WebhookDelivery> rest) {
+        final CircuitBreaker circuitBreaker = circuitBreakers.computeIfAbsent(claim.uri().toString(),
+                url -> new CircuitBreaker(failureThreshold, openDuration.toMillis()));
+        final long now = System.currentTimeMillis();
+        final long remainingOpenMillis = circuitBreaker.remainingOpenMillis();
+        if (remainingOpenMillis > 0) {
+            postpone(batch, rest, new Date(now + remainingOpenMillis));
+            return false;
+        }
+        final List<WebhookEvent> events = batch.stream()
+                .map(WebhookEvent::from)
+                .toList();
+        final WebhookSender.Result result = sender.send(claim.uri(), claim.secret(), events);
+        switch (result.outcome()) {
+            case DELIVERED -> {
+                circuitBreaker.onSuccess();
+                transactionTemplate.executeWithoutResult(status ->
+                        webhookDeliveryRepository.deleteAllByIdInBatch(ids(batch)));
+                return true;
+            }
+            case REFUSED -> {
+                final List<Long> ids = ids(batch, rest);
+                final int parked = transactionTemplate.execute(status ->
+                        webhookDeliveryRepository.park(ids, new Date(now), result.error(), 0));
+                log.warn("{} webhook deliveries to {} are parked: {}", parked, claim.uri(), result.error());
+                addressRefusedCounter.increment(parked);
+                return false;
+            }
+            default -> {
+                circuitBreaker.onFailure();
+                final int attempts = batch.stream().mapToInt(WebhookDelivery::getAttempts).max().orElse(0) + 1;
+                final Date nextAttemptAt = new Date(now + backoffMillis(attempts));
+                final String error = truncate(result.error());
+                final int parked = transactionTemplate.execute(status -> {
+                    webhookDeliveryRepository.recordFailure(ids(batch), nextAttemptAt, error);
+                    if (!rest.isEmpty()) {
+                        webhookDeliveryRepository.postpone(ids(rest), nextAttemptAt);
+                    }
+                    return webhookDeliveryRepository.park(ids(batch), new Date(now), error, maxAttempts);
+                });
+                if (parked > 0) {
+                    log.warn("{} webhook deliveries to {} are parked after {} attempts: {}",
+                            parked, claim.uri(), maxAttempts, error);
+                    retriesExhaustedCounter.increment(parked);
+                }
+                return false;
+            }
+        }
+    }
+
+    private void postpone(final List<WebhookDelivery> batch, final List<WebhookDelivery> rest,
+                          final Date nextAttemptAt) {
+        transactionTemplate.executeWithoutResult(status ->
+                webhookDeliveryRepository.postpone(ids(batch, rest), nextAttemptAt));
+    }
+
+    // Full jitter over the upper half, so that endpoints failing together don't retry together
+    private long backoffMillis(final int attempts) {
+        final long backoff = Math.min(maxBackoff.toMillis(), initialBackoff.toMillis() << Math.min(attempts - 1, 30));
+        return backoff / 2 + ThreadLocalRandom.current().nextLong(backoff / 2 + 1);
+    }
+
+    private static List<Long> ids(final List<WebhookDelivery> deliveries) {
+        return deliveries.stream()
+                .map(WebhookDelivery::getId)
+                .toList();
+    }
+
+    private static List<Long> ids(final List<WebhookDelivery> batch, final List<WebhookDelivery> rest) {
+        final List<Long> ids = new ArrayList<>(ids(batch));
+        ids.addAll(ids(rest));
+        return ids;
+    }
+
+    private static String truncate(final String error) {
+        return error.length() > MAX_ERROR_LENGTH ? error.substring(0, MAX_ERROR_LENGTH) : error;
+    }
+
+    private static Counter parkedCounter(final MeterRegistry meterRegistry, final String reason) {
+        return Counter.builder(PARKED_METRIC_NAME)
+                .description("Webhook deliveries given up")
+                .tag("reason", reason)
+                .register(meterRegistry);
+    }
+
+    // Rows of webhooks with the same URL and secret, in id order
+    private record Claim(URI uri, String secret, Set<Long> webhookIds, List<WebhookDelivery> deliveries) {
+    }
+
+    private record EndpointKey(String url, String secret) {
+        static EndpointKey of(final Webhook webhook) {
+            return new EndpointKey(webhook.getUrl(), webhook.getSecret());
+        }
+    }
+}
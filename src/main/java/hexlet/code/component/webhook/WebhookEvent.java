@@ -0,0 +1,17 @@
+package hexlet.code.component.webhook;
+
+import com.fasterxml.jackson.annotation.JsonRawValue;
+import hexlet.code.entity.WebhookDelivery;
+
+import java.util.Date;
+
+/**
+ * An item of a webhook batch. The id is the outbox event id, the same for every delivery of the event.
+ */
+public record WebhookEvent(Long id, String type, Date createdAt, @JsonRawValue String data) {
+
+    public static WebhookEvent from(final WebhookDelivery delivery) {
+        return new WebhookEvent(delivery.getEventId(), delivery.getEventType(), delivery.getEventCreatedAt(),
+                delivery.getPayload());
+    }
+}
@@ -0,0 +1,139 @@
+package hexlet.code.component.webhook;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.hc.client5.http.classic.methods.HttpPost;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.http.ClassicHttpResponse;
+import org.apache.hc.core5.http.ContentType;
+import org.apache.hc.core5.http.io.entity.ByteArrayEntity;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.IOException;
+import java.net.URI;
+import java.net.UnknownHostException;
+import java.security.GeneralSecurityException;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.springframework.http.MediaType.APPLICATION_JSON_VALUE;
+
+/**
+ * POSTs one signed batch of events. Batches are not sent to hosts that resolve to internal addresses, see
+ * {@link WebhookAddressFilter}. The JDK HTTP client has no resolver hook, so the Apache one is used.
+ */
+@Slf4j
+@Component
+public class WebhookSender implements DisposableBean {
+
+    public static final String DELIVERY_METRIC_NAME = "webhooks.deliveries";
+    public static final String SIGNATURE_HEADER = "X-Webhook-Signature";
+    public static final String TIMESTAMP_HEADER = "X-Webhook-Timestamp";
+    public static final String SIGNATURE_ALGORITHM = "HmacSHA256";
+
+    enum Outcome { DELIVERED, FAILED, REFUSED }
+
+    record Result(Outcome outcome, String error) {
+        static final Result DELIVERED = new Result(Outcome.DELIVERED, null);
+    }
+
+    private final ObjectMapper objectMapper;
+    private final CloseableHttpClient httpClient;
+    private final Timer successTimer;
+    private final Timer failureTimer;
+
+    public WebhookSender(@Value("${webhooks.delivery.timeout:5s}") final Duration timeout,
+                         @Value("${webhooks.delivery.allowed-hosts:}") final Set<String> allowedHosts,
+                         final ObjectMapper objectMapper,
+                         final MeterRegistry meterRegistry) {
+        this.objectMapper = objectMapper;
+        // Redirects are not followed, a checked host could otherwise redirect to an internal one.
+        // Failed batches are retried by the dispatcher with a backoff, not by the client
+        this.httpClient = HttpClients.custom()
+                .setConnectionManager(PoolingHttpClientConnectionManagerBuilder.create()
+                        .setDnsResolver(new WebhookAddressFilter(allowedHosts))
+                        .build())
+                .setDefaultRequestConfig(RequestConfig.custom()
+                        .setConnectTimeout(Timeout.ofMilliseconds(timeout.toMillis()))
+                        .setResponseTimeout(Timeout.ofMilliseconds(timeout.toMillis()))
+                        .build())
+                .disableRedirectHandling()
+                .disableAutomaticRetries()
+                .build();
+        this.successTimer = deliveryTimer(meterRegistry, "SUCCESS");
+        this.failureTimer = deliveryTimer(meterRegistry, "FAILURE");
+    }
+
+    Result send(final URI uri, final String secret, final List<WebhookEvent> batch) {
+        final long start = System.nanoTime();
+        Result result;
+        try {
+            final byte[] body = objectMapper.writeValueAsBytes(batch);
+            final String timestamp = String.valueOf(System.currentTimeMillis() / 1000);
+            final HttpPost request = new HttpPost(uri);
+            request.setHeader(TIMESTAMP_HEADER, timestamp);
+            request.setHeader(SIGNATURE_HEADER, sign(secret, timestamp, body));
+            request.setEntity(new ByteArrayEntity(body, ContentType.create(APPLICATION_JSON_VALUE)));
+            final int status = httpClient.execute(request, ClassicHttpResponse::getCode);
+            result = status >= 200 && status < 300 ? Result.DELIVERED
+                    : new Result(Outcome.FAILED, "Answered " + status);
+        } catch (JsonProcessingException e) {
+            log.error("Webhook batch to {} is not serialized", uri, e);
+            result = new Result(Outcome.FAILED, "Batch is not serialized");
+        } catch (WebhookAddressFilter.InternalAddressException e) {
+            result = new Result(Outcome.REFUSED, "Host resolves to an internal address");
+        } catch (UnknownHostException e) {
+            result = new Result(Outcome.FAILED, "Unknown host " + uri.getHost());
+        } catch (IOException | IllegalArgumentException e) {
+            result = new Result(Outcome.FAILED, "Not reachable: " + e.getMessage());
+        }
+        final boolean success = result.outcome() == Outcome.DELIVERED;
+        (success ? successTimer : failureTimer).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        if (!success) {
+            log.debug("Webhook batch to {} is not delivered: {}", uri, result.error());
+        }
+        return result;
+    }
+
+    @Override
+    public void destroy() throws IOException {
+        httpClient.close();
+    }
+
+    /**
+     * Signs the timestamp and the body, the timestamp lets receivers refuse replayed batches.
+     */
+    public static String sign(final String secret, final String timestamp, final byte[] body) {
+        try {
+            final Mac mac = Mac.getInstance(SIGNATURE_ALGORITHM);
+            mac.init(new SecretKeySpec(secret.getBytes(UTF_8), SIGNATURE_ALGORITHM));
+            mac.update(timestamp.getBytes(UTF_8));
+            mac.update((byte) '.');
+            return "sha256=" + HexFormat.of().formatHex(mac.doFinal(body));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static Timer deliveryTimer(final MeterRegistry meterRegistry, final String outcome) {
+        return Timer.builder(DELIVERY_METRIC_NAME)
+                .description("Webhook batch POSTs")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+}
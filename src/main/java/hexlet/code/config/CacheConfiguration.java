@@ -0,0 +1,36 @@
+package hexlet.code.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+@EnableCaching
+public class CacheConfiguration {
+
+    public static final String TASK_STATUSES_CACHE = "taskStatuses";
+    public static final String LABELS_CACHE = "labels";
+    // Key of the whole list, entities themselves are cached by id
+    public static final String ALL_KEY = "all";
+
+    // Statuses and labels change rarely, TTL only bounds staleness if an eviction is missed.
+    // Caches are declared up front, so that actuator binds their hit/miss metrics on startup,
+    // and each one needs an entity mapped to it in CacheInvalidationListener
+    @Bean
+    public CacheManager cacheManager(@Value("${cache.reference-data.max-size:10000}") final long maxSize,
+                                     @Value("${cache.reference-data.ttl:10m}") final Duration ttl) {
+        final CaffeineCacheManager cacheManager = new CaffeineCacheManager(TASK_STATUSES_CACHE, LABELS_CACHE);
+        cacheManager.setCaffeine(Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats());
+        cacheManager.setAllowNullValues(false);
+        return cacheManager;
+    }
+}
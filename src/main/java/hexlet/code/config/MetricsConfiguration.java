@@ -0,0 +1,46 @@
+package hexlet.code.config;
+
+import hexlet.code.component.metrics.QueryRecorder;
+import hexlet.code.filter.StatementMetricsFilter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import javax.sql.DataSource;
+
+@Configuration
+public class MetricsConfiguration {
+
+    // The recorder is looked up lazily, a post processor is created before regular beans
+    @Bean
+    public static BeanPostProcessor queryRecordingDataSourcePostProcessor(
+            final ObjectProvider<QueryRecorder> queryRecorder) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(final Object bean, final String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof QueryRecordingDataSource)) {
+                    return new QueryRecordingDataSource(dataSource, queryRecorder.getObject());
+                }
+                return bean;
+            }
+        };
+    }
+
+    // Runs before Spring Security, so that statements of the login are counted too
+    @Bean
+    public FilterRegistrationBean<StatementMetricsFilter> statementMetricsFilter(
+            final QueryRecorder queryRecorder,
+            final MeterRegistry meterRegistry,
+            @Value("${db.query-stats.statement-budget:20}") final int statementBudget,
+            @Value("${db.query-stats.headers:false}") final boolean headersEnabled) {
+        final var registration = new FilterRegistrationBean<>(
+                new StatementMetricsFilter(queryRecorder, meterRegistry, statementBudget, headersEnabled));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registration;
+    }
+}
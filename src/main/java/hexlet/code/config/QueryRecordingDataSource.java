@@ -0,0 +1,88 @@
+package hexlet.code.config;
+
+import hexlet.code.component.metrics.QueryRecorder;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Set;
+
+/**
+ * Times every statement executed through the connections of the target data source
+ * and hands it over to the {@link QueryRecorder} together with its SQL.
+ */
+public class QueryRecordingDataSource extends DelegatingDataSource {
+
+    private static final Set<String> STATEMENT_FACTORIES = Set.of("createStatement", "prepareStatement", "prepareCall");
+    private static final String EXECUTE = "execute";
+    // Plain statements executing a batch don't expose its SQL
+    private static final String BATCH_SQL = "<batch>";
+
+    private final QueryRecorder queryRecorder;
+
+    public QueryRecordingDataSource(final DataSource targetDataSource, final QueryRecorder queryRecorder) {
+        super(targetDataSource);
+        this.queryRecorder = queryRecorder;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return recording(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(final String username, final String password) throws SQLException {
+        return recording(super.getConnection(username, password));
+    }
+
+    private Connection recording(final Connection connection) {
+        return (Connection) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] {Connection.class},
+                (proxy, method, args) -> {
+                    final Object result = invoke(connection, method, args);
+                    if (result instanceof Statement statement && STATEMENT_FACTORIES.contains(method.getName())) {
+                        // Prepared statements carry their SQL from the start, plain ones get it on execution
+                        final String sql = args != null && args.length > 0 && args[0] instanceof String text
+                                ? text
+                                : null;
+                        return recording(statement, method.getReturnType(), sql);
+                    }
+                    return result;
+                });
+    }
+
+    // The type is Statement, PreparedStatement or CallableStatement as returned by the connection
+    private Statement recording(final Statement statement, final Class<?> type, final String preparedSql) {
+        return (Statement) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] {type},
+                (proxy, method, args) -> {
+                    if (!method.getName().startsWith(EXECUTE)) {
+                        return invoke(statement, method, args);
+                    }
+                    final long start = System.nanoTime();
+                    try {
+                        return invoke(statement, method, args);
+                    } finally {
+                        queryRecorder.record(sqlOf(args, preparedSql), System.nanoTime() - start);
+                    }
+                });
+    }
+
+    private static String sqlOf(final Object[] args, final String preparedSql) {
+        if (preparedSql != null) {
+            return preparedSql;
+        }
+        return args != null && args.length > 0 && args[0] instanceof String sql ? sql : BATCH_SQL;
+    }
+
+    private static Object invoke(final Object target, final Method method, final Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package hexlet.code.config;
+
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static hexlet.code.config.VirtualThreadsConfiguration.VIRTUAL_THREADS_PROFILE;
+
+/**
+ * Opt-in mode that handles requests on virtual threads instead of the Tomcat worker pool.
+ * On Java 20 virtual threads are a preview feature, so the JVM has to be started with --enable-preview.
+ * Connections are limited only by the Hikari pool, which is the same as with platform threads: on the load test host
+ * a smaller or larger pool didn't change throughput. There the mode was not faster than the worker pool, so it stays
+ * experimental, see src/test/load-test-results.md.
+ */
+@Configuration
+@Profile(VIRTUAL_THREADS_PROFILE)
+public class VirtualThreadsConfiguration {
+
+    public static final String VIRTUAL_THREADS_PROFILE = "virtual-threads";
+
+    // Looked up reflectively: the method is a preview API on Java 20, which the code is compiled for
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService virtualThreadExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Virtual threads are not available, run on Java 21+ "
+                    + "or on Java 20 with --enable-preview", e);
+        }
+    }
+
+    @Bean
+    public TomcatProtocolHandlerCustomizer<?> virtualThreadProtocolHandlerCustomizer(
+            final ExecutorService virtualThreadExecutor) {
+        return protocolHandler -> protocolHandler.setExecutor(virtualThreadExecutor);
+    }
+
+    // Also runs async MVC work such as streamed exports
+    @Bean(name = TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME)
+    public AsyncTaskExecutor applicationTaskExecutor(final ExecutorService virtualThreadExecutor) {
+        return new TaskExecutorAdapter(virtualThreadExecutor);
+    }
+}
@@ -0,0 +1,14 @@
+package hexlet.code.config.security;
+
+import org.springframework.security.core.AuthenticatedPrincipal;
+
+/**
+ * Principal restored from a JWT. {@code id} is {@code null} for tokens issued before the user id claim was added.
+ */
+public record AuthenticatedUser(Long id, String email) implements AuthenticatedPrincipal {
+
+    @Override
+    public String getName() {
+        return email;
+    }
+}
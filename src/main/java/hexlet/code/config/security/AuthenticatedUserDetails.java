@@ -0,0 +1,21 @@
+package hexlet.code.config.security;
+
+import lombok.Getter;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+
+import java.util.Collection;
+
+@Getter
+public class AuthenticatedUserDetails extends User {
+
+    private final Long id;
+
+    public AuthenticatedUserDetails(final Long id,
+                                    final String username,
+                                    final String password,
+                                    final Collection<? extends GrantedAuthority> authorities) {
+        super(username, password, authorities);
+        this.id = id;
+    }
+}
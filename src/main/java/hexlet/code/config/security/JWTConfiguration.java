@@ -0,0 +1,18 @@
+package hexlet.code.config.security;
+
+import hexlet.code.component.JWTKeys;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class JWTConfiguration {
+
+    @Bean
+    public JWTKeys jwtKeys(@Value("${jwt.algorithm:HS256}") final JWTKeys.Algorithm algorithm,
+                           @Value("${jwt.secret:kar_secret}") final String secret,
+                           @Value("${jwt.private-key:}") final String privateKey,
+                           @Value("${jwt.public-key:}") final String publicKey) {
+        return JWTKeys.of(algorithm, secret, privateKey, publicKey);
+    }
+}
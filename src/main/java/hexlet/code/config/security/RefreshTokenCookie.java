@@ -0,0 +1,48 @@
+package hexlet.code.config.security;
+
+import hexlet.code.component.JWTUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ResponseCookie;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * The refresh token lives in an HttpOnly cookie, so scripts on the page can't read it
+ * and the login response body stays the bare access token.
+ */
+@Component
+public class RefreshTokenCookie {
+
+    public static final String NAME = "refresh_token";
+
+    private final String path;
+    private final boolean secure;
+    private final Duration maxAge;
+
+    public RefreshTokenCookie(@Value("${base-url}") final String baseUrl,
+                              @Value("${jwt.refresh-cookie.secure:true}") final boolean secure,
+                              final JWTUtils jwtUtils) {
+        this.path = baseUrl.isEmpty() ? "/" : baseUrl;
+        this.secure = secure;
+        this.maxAge = Duration.ofSeconds(jwtUtils.getRefreshExpirationSec());
+    }
+
+    public ResponseCookie create(final String refreshToken) {
+        return build(refreshToken, maxAge);
+    }
+
+    public ResponseCookie clear() {
+        return build("", Duration.ZERO);
+    }
+
+    private ResponseCookie build(final String value, final Duration cookieMaxAge) {
+        return ResponseCookie.from(NAME, value)
+                .httpOnly(true)
+                .secure(secure)
+                .sameSite("Strict")
+                .path(path)
+                .maxAge(cookieMaxAge)
+                .build();
+    }
+}
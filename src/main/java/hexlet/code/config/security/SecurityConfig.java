@@ -1,8 +1,13 @@
 package hexlet.code.config.security;
 
-import hexlet.code.component.JWTUtils;
+import hexlet.code.component.JWTClaimsCache;
+import hexlet.code.component.PasswordHashingExecutor;
+import hexlet.code.component.TokenDenylist;
 import hexlet.code.filter.JWTAuthenticationFilter;
 import hexlet.code.filter.JWTAuthorizationFilter;
+import hexlet.code.service.TokenService;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.DispatcherType;
 import java.util.List;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
@@ -15,6 +20,7 @@ import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
@@ -25,6 +31,7 @@ import org.springframework.security.web.util.matcher.NegatedRequestMatcher;
 import org.springframework.security.web.util.matcher.OrRequestMatcher;
 import org.springframework.security.web.util.matcher.RequestMatcher;
 
+import static hexlet.code.controller.AuthController.REFRESH;
 import static hexlet.code.controller.UserController.USER_CONTROLLER_PATH;
 import static org.springframework.http.HttpMethod.GET;
 import static org.springframework.http.HttpMethod.POST;
@@ -43,22 +50,27 @@ public class SecurityConfig {
     // - GET('/api/users')
     // - POST('/api/users')
     // - POST('/api/login')
+    // - POST('/api/refresh')
     // - все запросы НЕ начинающиеся на '/api'
     private final UserDetailsService userDetailsService;
-    private final JWTUtils jwtUtils;
+    private final UserDetailsPasswordService userDetailsPasswordService;
     private final String baseUrl;
+    private final int bcryptStrength;
     private final RequestMatcher loginRequest;
     private final RequestMatcher publicUrls;
 
     public SecurityConfig(@Value("${base-url}") final String baseUrl,
+                          @Value("${security.bcrypt.strength:10}") final int bcryptStrength,
                           final UserDetailsService userDetailsService,
-                          final JWTUtils jwtUtils) {
+                          final UserDetailsPasswordService userDetailsPasswordService) {
         this.baseUrl = baseUrl;
+        this.bcryptStrength = bcryptStrength;
         this.userDetailsService = userDetailsService;
-        this.jwtUtils = jwtUtils;
+        this.userDetailsPasswordService = userDetailsPasswordService;
         this.loginRequest = new AntPathRequestMatcher(baseUrl + LOGIN, POST.toString());
         this.publicUrls = new OrRequestMatcher(
                 loginRequest,
+                new AntPathRequestMatcher(baseUrl + REFRESH, POST.toString()),
                 new AntPathRequestMatcher(baseUrl + USER_CONTROLLER_PATH, POST.toString()),
                 new AntPathRequestMatcher(baseUrl + USER_CONTROLLER_PATH, GET.toString()),
                 new NegatedRequestMatcher(new AntPathRequestMatcher(baseUrl + "/**"))
@@ -67,7 +79,7 @@ public class SecurityConfig {
 
     @Bean
     public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+        return new BCryptPasswordEncoder(bcryptStrength);
     }
 
     @Bean
@@ -75,6 +87,8 @@ public class SecurityConfig {
         DaoAuthenticationProvider authProvider = new DaoAuthenticationProvider();
         authProvider.setUserDetailsService(userDetailsService);
         authProvider.setPasswordEncoder(passwordEncoder());
+        // Hashes made with a lower strength are replaced on the next successful login
+        authProvider.setUserDetailsPasswordService(userDetailsPasswordService);
         return authProvider;
     }
 
@@ -85,19 +99,30 @@ public class SecurityConfig {
 
 
     @Bean
-    public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
+    public SecurityFilterChain securityFilterChain(HttpSecurity http,
+                                                   TokenService tokenService,
+                                                   RefreshTokenCookie refreshTokenCookie,
+                                                   JWTClaimsCache jwtClaimsCache,
+                                                   TokenDenylist tokenDenylist,
+                                                   PasswordHashingExecutor passwordHashingExecutor,
+                                                   MeterRegistry meterRegistry) throws Exception {
         http
                 .csrf().disable()
                 .authorizeHttpRequests()
+                // Async dispatch only completes a request that has already been authorized, e.g. a streamed export.
+                // Error dispatch renders a status that is already set, otherwise every 401 would become a 403
+                .dispatcherTypeMatchers(DispatcherType.ASYNC, DispatcherType.ERROR).permitAll()
                 .requestMatchers(publicUrls).permitAll()
                 .anyRequest().authenticated().and()
                 .addFilter(new JWTAuthenticationFilter(
                         authenticationManager(http.getSharedObject(AuthenticationConfiguration.class)),
                         loginRequest,
-                        jwtUtils
+                        tokenService,
+                        refreshTokenCookie,
+                        passwordHashingExecutor
                 ))
                 .addFilterBefore(
-                        new JWTAuthorizationFilter(publicUrls, jwtUtils),
+                        new JWTAuthorizationFilter(publicUrls, jwtClaimsCache, tokenDenylist, meterRegistry),
                         UsernamePasswordAuthenticationFilter.class
                 )
                 .formLogin().disable()
@@ -0,0 +1,63 @@
+package hexlet.code.controller;
+
+import hexlet.code.config.security.RefreshTokenCookie;
+import hexlet.code.dto.TokenPair;
+import hexlet.code.service.TokenService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.CookieValue;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+
+import static org.springframework.http.HttpHeaders.SET_COOKIE;
+
+@RestController
+@RequestMapping("${base-url}")
+@RequiredArgsConstructor
+public class AuthController {
+    public static final String REFRESH = "/refresh";
+    public static final String LOGOUT = "/logout";
+
+    private final TokenService tokenService;
+    private final RefreshTokenCookie refreshTokenCookie;
+
+    @Operation(summary = "Exchange the refresh token cookie for a new access token")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "New access token, the refresh token cookie is rotated"),
+            @ApiResponse(responseCode = "401", description = "Refresh token is missing, expired or revoked")
+    })
+    @PostMapping(REFRESH)
+    public ResponseEntity<String> refresh(
+            @CookieValue(name = RefreshTokenCookie.NAME, required = false) final String refreshToken) {
+        final TokenPair tokens = tokenService.refreshTokens(refreshToken);
+        return ResponseEntity.ok()
+                .header(SET_COOKIE, refreshTokenCookie.create(tokens.getRefreshToken()).toString())
+                .body(tokens.getAccessToken());
+    }
+
+    @Operation(summary = "Revoke the current access token and the refresh token cookie")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Tokens revoked"),
+            @ApiResponse(responseCode = "401", description = "Unauthorized request")
+    })
+    @PostMapping(LOGOUT)
+    @SuppressWarnings("unchecked")
+    public ResponseEntity<Void> logout(
+            @CookieValue(name = RefreshTokenCookie.NAME, required = false) final String refreshToken,
+            final Authentication authentication) {
+        final Map<String, Object> claims = authentication.getDetails() instanceof Map<?, ?> details
+                ? (Map<String, Object>) details
+                : Map.of();
+        tokenService.revokeTokens(claims, refreshToken);
+        return ResponseEntity.ok()
+                .header(SET_COOKIE, refreshTokenCookie.clear().toString())
+                .build();
+    }
+}
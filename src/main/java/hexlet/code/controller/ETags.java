@@ -0,0 +1,68 @@
+package hexlet.code.controller;
+
+import hexlet.code.entity.Versioned;
+import hexlet.code.repository.projection.VersionStamp;
+import org.springframework.http.CacheControl;
+import org.springframework.util.DigestUtils;
+import org.springframework.web.context.request.WebRequest;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Conditional GET support. A single resource gets a strong ETag made of its version, a list gets a weak ETag made
+ * of the version stamps of the rows it is read from. Cached lists are answered without a query, a task page is read
+ * with its versions and only its serialization is skipped.
+ */
+final class ETags {
+    // Without it the default security headers forbid storing the response, and browsers never revalidate it
+    static final CacheControl REVALIDATE = CacheControl.noCache().cachePrivate();
+
+    private ETags() {
+    }
+
+    static boolean isNotModified(final WebRequest request, final Versioned entity) {
+        return isNotModified(request, entity, List.of());
+    }
+
+    // The entity version is raised when it is pointed to other references, and versions of the references
+    // only grow, so their sum changes whenever one of them is updated
+    static boolean isNotModified(final WebRequest request, final Versioned entity,
+                                 final Collection<? extends Versioned> references) {
+        final long referencesVersion = references.stream()
+                .map(Versioned::getVersion)
+                .filter(Objects::nonNull)
+                .mapToLong(Long::longValue)
+                .sum();
+        final String eTag = references.isEmpty()
+                ? "\"" + entity.getVersion() + "\""
+                : "\"" + entity.getVersion() + "." + referencesVersion + "\"";
+        final Date lastModified = Stream.concat(Stream.of(entity), references.stream())
+                .map(Versioned::getUpdatedAt)
+                .filter(Objects::nonNull)
+                .max(Date::compareTo)
+                .orElse(null);
+        return request.checkNotModified(eTag, toMillis(lastModified));
+    }
+
+    static boolean isNotModified(final WebRequest request, final List<VersionStamp> stamps) {
+        final String version = stamps.stream()
+                .map(stamp -> stamp.version() + "." + toMillis(stamp.lastModified()))
+                .collect(Collectors.joining("-"));
+        final String eTag = "W/\"" + DigestUtils.md5DigestAsHex(version.getBytes(StandardCharsets.UTF_8)) + "\"";
+        final long lastModified = stamps.stream()
+                .mapToLong(stamp -> toMillis(stamp.lastModified()))
+                .max()
+                .orElse(-1);
+        return request.checkNotModified(eTag, lastModified);
+    }
+
+    private static long toMillis(final Date date) {
+        return date == null ? -1 : date.getTime();
+    }
+}
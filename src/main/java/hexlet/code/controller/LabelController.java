@@ -1,7 +1,9 @@
 package hexlet.code.controller;
 
 import hexlet.code.dto.LabelDto;
+import hexlet.code.dto.LabelResponseDto;
 import hexlet.code.entity.Label;
+import hexlet.code.repository.projection.VersionStamp;
 import hexlet.code.service.LabelService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -10,6 +12,7 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.bind.annotation.RequestMapping;
@@ -20,6 +23,7 @@ import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.context.request.WebRequest;
 
 import jakarta.validation.Valid;
 import java.util.List;
@@ -56,28 +60,39 @@ public class LabelController {
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Label found",
                          content = @Content(mediaType = "application/json",
-                         schema = @Schema(implementation = Label.class))),
+                         schema = @Schema(implementation = LabelResponseDto.class))),
+            @ApiResponse(responseCode = "304", description = "Label not modified since the version in If-None-Match"),
             @ApiResponse(responseCode = "404", description = "Label with that ID not found"),
             @ApiResponse(responseCode = "401", description = "Unauthorized request")
     })
     @GetMapping(path = ID)
     @PreAuthorize(AUTHORIZED_USERS_ONLY)
-    public Label getLabelById(
+    public ResponseEntity<LabelResponseDto> getLabelById(
             @Parameter(description = "ID of label to find")
-            @PathVariable final Long id) {
-        return labelService.getLabelById(id);
+            @PathVariable final Long id,
+            final WebRequest request) {
+        final LabelResponseDto label = labelService.getLabelById(id);
+        if (ETags.isNotModified(request, label)) {
+            return null;
+        }
+        return ResponseEntity.ok().cacheControl(ETags.REVALIDATE).body(label);
     }
     @Operation(summary = "Get list of all labels")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "List of all labels",
                          content = @Content(mediaType = "application/json",
-                         schema = @Schema(implementation = Label.class))),
+                         schema = @Schema(implementation = LabelResponseDto.class))),
+            @ApiResponse(responseCode = "304", description = "Labels not modified since the version in If-None-Match"),
             @ApiResponse(responseCode = "401", description = "Unauthorized request")
     })
     @GetMapping("/")
     @PreAuthorize(AUTHORIZED_USERS_ONLY)
-    public List<Label> getAllLabels() {
-        return labelService.getAllLabels();
+    public ResponseEntity<List<LabelResponseDto>> getAllLabels(final WebRequest request) {
+        final List<LabelResponseDto> labels = labelService.getAllLabels();
+        if (ETags.isNotModified(request, List.of(VersionStamp.of(labels)))) {
+            return null;
+        }
+        return ResponseEntity.ok().cacheControl(ETags.REVALIDATE).body(labels);
     }
     @Operation(summary = "Update existing label by ID")
     @ApiResponses(value = {
@@ -1,8 +1,17 @@
 package hexlet.code.controller;
 
 import com.querydsl.core.types.Predicate;
+import hexlet.code.dto.TaskBatchDto;
 import hexlet.code.dto.TaskDto;
+import hexlet.code.dto.TaskOperationResultDto;
+import hexlet.code.dto.TaskPage;
+import hexlet.code.dto.TaskPatchDto;
+import hexlet.code.dto.TaskResponseDto;
 import hexlet.code.entity.Task;
+import hexlet.code.entity.Versioned;
+import hexlet.code.event.TaskEventFilter;
+import hexlet.code.service.TaskEventService;
+import hexlet.code.service.TaskExportService;
 import hexlet.code.service.TaskService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -12,20 +21,36 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.querydsl.binding.QuerydslPredicate;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import jakarta.validation.Valid;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 import static hexlet.code.controller.TaskController.TASK_CONTROLLER_PATH;
+import static org.springframework.http.HttpHeaders.CONTENT_DISPOSITION;
 import static org.springframework.http.HttpStatus.CREATED;
+import static org.springframework.http.MediaType.TEXT_EVENT_STREAM_VALUE;
 
 @RestController
 @RequestMapping("${base-url}" + TASK_CONTROLLER_PATH)
@@ -33,71 +58,184 @@ import static org.springframework.http.HttpStatus.CREATED;
 public class TaskController {
     public static final String TASK_CONTROLLER_PATH = "/tasks";
     public static final String ID = "/{id}";
+    public static final String BATCH = "/batch";
+    public static final String EXPORT = "/export";
+    public static final String EVENTS = "/events";
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
     private static final String AUTHORIZED_USERS_ONLY = "isAuthenticated()";
-    private static final String TASK_CREATOR =
-            "@taskRepository.findById(#id).get().getAuthor().getEmail() == authentication.getName()";
+    private static final String TASK_CREATOR = "@ownership.isTaskAuthor(#id)";
 
     private final TaskService taskService;
+    private final TaskExportService taskExportService;
+    private final TaskEventService taskEventService;
 
     @Operation(summary = "Create new task")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "201", description = "Task created",
                          content = @Content(mediaType = "application/json",
-                         schema = @Schema(implementation = Task.class))),
+                         schema = @Schema(implementation = TaskResponseDto.class))),
             @ApiResponse(responseCode = "422", description = "Request contains invalid data"),
             @ApiResponse(responseCode = "401", description = "Unauthorized request")
     })
     @PostMapping("/")
     @ResponseStatus(CREATED)
     @PreAuthorize(AUTHORIZED_USERS_ONLY)
-    public Task createNewTask(
+    public TaskResponseDto createNewTask(
             @Parameter(description = "Task to save", schema = @Schema(implementation = TaskDto.class))
             @RequestBody @Valid final TaskDto taskDto) {
-        return taskService.createNewTask(taskDto);
+        return TaskResponseDto.from(taskService.createNewTask(taskDto));
+    }
+
+    @Operation(summary = "Create, update and delete tasks in one transaction")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "All operations applied, result of each one is returned",
+                         content = @Content(mediaType = "application/json",
+                         schema = @Schema(implementation = TaskOperationResultDto.class))),
+            @ApiResponse(responseCode = "422", description = "Batch is not applied, failed operations "
+                    + "are returned with their errors",
+                         content = @Content(mediaType = "application/json",
+                         schema = @Schema(implementation = TaskOperationResultDto.class))),
+            @ApiResponse(responseCode = "401", description = "Unauthorized request")
+    })
+    @PostMapping(path = BATCH)
+    @PreAuthorize(AUTHORIZED_USERS_ONLY)
+    public List<TaskOperationResultDto> processBatch(
+            @Parameter(description = "Operations to apply in order",
+                       schema = @Schema(implementation = TaskBatchDto.class))
+            @RequestBody @Valid final TaskBatchDto taskBatchDto) {
+        return taskService.processBatch(taskBatchDto.getOperations());
     }
 
     @Operation(summary = "Get task by ID")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Task found",
                          content = @Content(mediaType = "application/json",
-                         schema = @Schema(implementation = Task.class))),
+                         schema = @Schema(implementation = TaskResponseDto.class))),
+            @ApiResponse(responseCode = "304", description = "Task not modified since the version in If-None-Match"),
             @ApiResponse(responseCode = "404", description = "Task with that ID not found")
     })
     @GetMapping(path = ID)
-    public Task getTaskByID(
+    public ResponseEntity<TaskResponseDto> getTaskByID(
             @Parameter(description = "ID of task to find")
-            @PathVariable long id) {
-        return taskService.getTaskById(id);
+            @PathVariable long id,
+            final WebRequest request) {
+        final Task task = taskService.getTaskById(id);
+        if (ETags.isNotModified(request, task, getReferences(task))) {
+            return null;
+        }
+        return ResponseEntity.ok().cacheControl(ETags.REVALIDATE).body(TaskResponseDto.from(task));
     }
 
-    @Operation(summary = "Get list of all tasks")
-    @ApiResponse(responseCode = "200", description = "List of all tasks",
-                 content = @Content(mediaType = "application/json",
-                 schema = @Schema(implementation = Task.class)))
+    @Operation(summary = "Get page of filtered tasks ordered by creation time")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Page of tasks, cursor of the next page is returned "
+                    + "in the " + NEXT_CURSOR_HEADER + " header",
+                         content = @Content(mediaType = "application/json",
+                         schema = @Schema(implementation = TaskResponseDto.class))),
+            @ApiResponse(responseCode = "304", description = "Tasks not modified since the version in If-None-Match"),
+            @ApiResponse(responseCode = "400", description = "Invalid page cursor")
+    })
     @GetMapping("/")
-    public Iterable<Task> getFilteredTasks(
+    public ResponseEntity<List<TaskResponseDto>> getFilteredTasks(
             @Parameter(description = "Filtering options", hidden = true)
-            @QuerydslPredicate(root = Task.class) Predicate predicate) {
-        return predicate == null ? taskService.getAllTasks() : taskService.getAllTasks(predicate);
+            @QuerydslPredicate(root = Task.class) Predicate predicate,
+            @Parameter(description = "Cursor of the page returned in the " + NEXT_CURSOR_HEADER + " header")
+            @RequestParam(required = false) String cursor,
+            @Parameter(description = "Page size, the default one if missing, cut to the maximum size")
+            @RequestParam(required = false) Integer size,
+            final WebRequest request) {
+        // The ETag versions the rows of this page, an unchanged page is read but not serialized
+        final TaskPage page = taskService.getTasksPage(predicate, cursor, size);
+        if (ETags.isNotModified(request, page.getVersionStamps())) {
+            return null;
+        }
+        final var response = ResponseEntity.ok().cacheControl(ETags.REVALIDATE);
+        if (page.getNextCursor() != null) {
+            response.header(NEXT_CURSOR_HEADER, page.getNextCursor());
+        }
+        return response.body(page.getTasks());
+    }
+
+    @Operation(summary = "Export filtered tasks ordered by ID")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Tasks are streamed one per line as they are read"),
+            @ApiResponse(responseCode = "401", description = "Unauthorized request")
+    })
+    @GetMapping(path = EXPORT)
+    public ResponseEntity<StreamingResponseBody> exportTasks(
+            @Parameter(description = "Filtering options", hidden = true)
+            @QuerydslPredicate(root = Task.class) Predicate predicate,
+            @Parameter(description = "Export format")
+            @RequestParam(defaultValue = "NDJSON") TaskExportService.Format format) {
+        final ContentDisposition contentDisposition = ContentDisposition.attachment()
+                .filename("tasks." + format.getExtension())
+                .build();
+        return ResponseEntity.ok()
+                .contentType(format.getMediaType())
+                .header(CONTENT_DISPOSITION, contentDisposition.toString())
+                .body(outputStream -> taskExportService.exportTasks(predicate, format, outputStream));
+    }
+
+    @Operation(summary = "Stream changes of filtered tasks")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Server-sent events: 'created' and 'updated' with the "
+                    + "task, 'deleted' with its id, also sent when an updated task no longer matches the filter. "
+                    + "The stream ends when the access token expires or is revoked"),
+            @ApiResponse(responseCode = "400", description = "Invalid filter"),
+            @ApiResponse(responseCode = "401", description = "Unauthorized request"),
+            @ApiResponse(responseCode = "503", description = "Too many subscribers on this node")
+    })
+    @GetMapping(path = EVENTS, produces = TEXT_EVENT_STREAM_VALUE)
+    @PreAuthorize(AUTHORIZED_USERS_ONLY)
+    @SuppressWarnings("unchecked")
+    public SseEmitter streamTaskEvents(
+            @Parameter(description = "Filtering options, the same as of the task list", hidden = true)
+            @QuerydslPredicate(root = Task.class) Predicate predicate,
+            final Authentication authentication) {
+        final Map<String, Object> claims = authentication.getDetails() instanceof Map<?, ?> details
+                ? (Map<String, Object>) details
+                : Map.of();
+        return taskEventService.subscribe(TaskEventFilter.of(predicate), claims);
     }
 
     @Operation(summary = "Update existing task by ID")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Task updated",
                          content = @Content(mediaType = "application/json",
-                         schema = @Schema(implementation = Task.class))),
+                         schema = @Schema(implementation = TaskResponseDto.class))),
             @ApiResponse(responseCode = "404", description = "Task with that ID not found"),
             @ApiResponse(responseCode = "422", description = "Request contains invalid data"),
             @ApiResponse(responseCode = "401", description = "Unauthorized request")
     })
     @PutMapping(path = ID)
     @PreAuthorize(AUTHORIZED_USERS_ONLY)
-    public Task updateTask(
+    public TaskResponseDto updateTask(
             @Parameter(description = "ID of task to update")
             @PathVariable long id,
             @Parameter(description = "Task to update", schema = @Schema(implementation = TaskDto.class))
             @RequestBody @Valid final TaskDto taskDto) {
-        return taskService.updateTask(id, taskDto);
+        return TaskResponseDto.from(taskService.updateTask(id, taskDto));
+    }
+
+    @Operation(summary = "Partially update existing task by ID")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Task updated",
+                         content = @Content(mediaType = "application/json",
+                         schema = @Schema(implementation = TaskResponseDto.class))),
+            @ApiResponse(responseCode = "404", description = "Task with that ID not found"),
+            @ApiResponse(responseCode = "422", description = "Request contains invalid data"),
+            @ApiResponse(responseCode = "401", description = "Unauthorized request")
+    })
+    @PatchMapping(path = ID)
+    @PreAuthorize(AUTHORIZED_USERS_ONLY)
+    public TaskResponseDto patchTask(
+            @Parameter(description = "ID of task to update")
+            @PathVariable long id,
+            @Parameter(description = "Task fields to update, missing fields are left unchanged. "
+                    + "The executor can't be removed this way, use PUT",
+                       schema = @Schema(implementation = TaskPatchDto.class))
+            @RequestBody @Valid final TaskPatchDto taskPatchDto) {
+        return TaskResponseDto.from(taskService.patchTask(id, taskPatchDto));
     }
 
     @Operation(summary = "Delete task by ID")
@@ -114,4 +252,13 @@ public class TaskController {
             @PathVariable final Long id) {
         taskService.deleteTaskById(id);
     }
+
+    private static List<Versioned> getReferences(final Task task) {
+        final List<Versioned> references = new ArrayList<>();
+        Stream.of(task.getTaskStatus(), task.getAuthor(), task.getExecutor())
+                .filter(Objects::nonNull)
+                .forEach(references::add);
+        Optional.ofNullable(task.getLabels()).ifPresent(references::addAll);
+        return references;
+    }
 }
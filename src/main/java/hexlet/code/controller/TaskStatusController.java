@@ -1,7 +1,9 @@
 package hexlet.code.controller;
 
 import hexlet.code.dto.TaskStatusDto;
+import hexlet.code.dto.TaskStatusResponseDto;
 import hexlet.code.entity.TaskStatus;
+import hexlet.code.repository.projection.VersionStamp;
 import hexlet.code.service.TaskStatusService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -10,6 +12,7 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.bind.annotation.RequestMapping;
@@ -20,6 +23,7 @@ import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.context.request.WebRequest;
 
 import jakarta.validation.Valid;
 import java.util.List;
@@ -58,23 +62,38 @@ public class TaskStatusController {
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Task status found",
                          content = @Content(mediaType = "application/json",
-                         schema = @Schema(implementation = TaskStatus.class))),
+                         schema = @Schema(implementation = TaskStatusResponseDto.class))),
+            @ApiResponse(responseCode = "304",
+                         description = "Task status not modified since the version in If-None-Match"),
             @ApiResponse(responseCode = "404", description = "Task status with that ID not found")
     })
     @GetMapping(path = ID)
-    public TaskStatus getTaskStatusById(
+    public ResponseEntity<TaskStatusResponseDto> getTaskStatusById(
             @Parameter(description = "ID of task status to find")
-            @PathVariable final Long id) {
-        return taskStatusService.getTaskStatusById(id);
+            @PathVariable final Long id,
+            final WebRequest request) {
+        final TaskStatusResponseDto taskStatus = taskStatusService.getTaskStatusById(id);
+        if (ETags.isNotModified(request, taskStatus)) {
+            return null;
+        }
+        return ResponseEntity.ok().cacheControl(ETags.REVALIDATE).body(taskStatus);
     }
 
     @Operation(summary = "Get list of all task statuses")
-    @ApiResponse(responseCode = "200", description = "List of all task statuses",
-                 content = @Content(mediaType = "application/json",
-                 schema = @Schema(implementation = TaskStatus.class)))
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "List of all task statuses",
+                         content = @Content(mediaType = "application/json",
+                         schema = @Schema(implementation = TaskStatusResponseDto.class))),
+            @ApiResponse(responseCode = "304",
+                         description = "Task statuses not modified since the version in If-None-Match")
+    })
     @GetMapping("/")
-    public List<TaskStatus> getAllTaskStatuses() {
-        return taskStatusService.getAllTaskStatuses();
+    public ResponseEntity<List<TaskStatusResponseDto>> getAllTaskStatuses(final WebRequest request) {
+        final List<TaskStatusResponseDto> taskStatuses = taskStatusService.getAllTaskStatuses();
+        if (ETags.isNotModified(request, List.of(VersionStamp.of(taskStatuses)))) {
+            return null;
+        }
+        return ResponseEntity.ok().cacheControl(ETags.REVALIDATE).body(taskStatuses);
     }
 
     @Operation(summary = "Update existing task status by ID")
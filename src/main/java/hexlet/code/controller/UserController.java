@@ -1,8 +1,10 @@
 package hexlet.code.controller;
 
 import hexlet.code.dto.UserDto;
+import hexlet.code.dto.UserResponseDto;
 import hexlet.code.entity.User;
-import hexlet.code.repository.UserRepository;
+import hexlet.code.repository.projection.UserView;
+import hexlet.code.repository.projection.VersionStamp;
 import hexlet.code.service.UserService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -11,6 +13,7 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.bind.annotation.RequestMapping;
@@ -21,6 +24,7 @@ import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.context.request.WebRequest;
 
 import jakarta.validation.Valid;
 import java.util.List;
@@ -34,56 +38,69 @@ import static org.springframework.http.HttpStatus.CREATED;
 public class UserController {
     public static final String USER_CONTROLLER_PATH = "/users";
     public static final String ID = "/{id}";
-    private static final String ONLY_OWNER_BY_ID = """
-            @userRepository.findById(#id).get().getEmail() == authentication.getName()
-        """;
+    private static final String ONLY_OWNER_BY_ID = "@ownership.isCurrentUser(#id)";
 
     private final UserService userService;
-    private final UserRepository userRepository;
 
     @Operation(summary = "Create new user")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "201", description = "User created",
                          content = @Content(mediaType = "application/json",
-                         schema = @Schema(implementation = User.class))),
+                         schema = @Schema(implementation = UserResponseDto.class))),
             @ApiResponse(responseCode = "422", description = "Request contains invalid data")
     })
     @PostMapping("/")
     @ResponseStatus(CREATED)
-    public User createNewUser(
+    public UserResponseDto createNewUser(
             @Parameter(description = "User to save", schema = @Schema(implementation = UserDto.class))
             @RequestBody @Valid final UserDto userDto) {
-        return userService.createNewUser(userDto);
+        return UserResponseDto.from(userService.createNewUser(userDto));
     }
 
     @Operation(summary = "Get user by ID")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "User found",
                          content = @Content(mediaType = "application/json",
-                         schema = @Schema(implementation = User.class))),
+                         schema = @Schema(implementation = UserResponseDto.class))),
+            @ApiResponse(responseCode = "304", description = "User not modified since the version in If-None-Match"),
             @ApiResponse(responseCode = "404", description = "User with that ID not found")
     })
     @GetMapping(path = ID)
-    public User getUserById(
+    public ResponseEntity<UserResponseDto> getUserById(
             @Parameter(description = "ID of user to find")
-            @PathVariable final Long id) {
-        return userService.getUserById(id);
+            @PathVariable final Long id,
+            final WebRequest request) {
+        final User user = userService.getUserById(id);
+        if (ETags.isNotModified(request, user)) {
+            return null;
+        }
+        return ResponseEntity.ok().cacheControl(ETags.REVALIDATE).body(UserResponseDto.from(user));
     }
 
     @Operation(summary = "Get list of all users")
-    @ApiResponse(responseCode = "200", description = "List of all users",
-                 content = @Content(mediaType = "application/json",
-                 schema = @Schema(implementation = User.class)))
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "List of all users",
+                         content = @Content(mediaType = "application/json",
+                         schema = @Schema(implementation = UserResponseDto.class))),
+            @ApiResponse(responseCode = "304", description = "Users not modified since the version in If-None-Match")
+    })
     @GetMapping("/")
-    public List<User> getAllUsers() {
-        return userService.getAllUsers();
+    public ResponseEntity<List<UserResponseDto>> getAllUsers(final WebRequest request) {
+        // Versioned by the rows read for the response, the list is whole anyway
+        final List<UserView> users = userService.getAllUsers();
+        if (ETags.isNotModified(request, List.of(VersionStamp.of(users)))) {
+            return null;
+        }
+        return ResponseEntity.ok().cacheControl(ETags.REVALIDATE).body(users.stream()
+                .map(UserResponseDto::from)
+                .toList());
     }
 
     @Operation(summary = "Update existing user by ID")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "User updated",
                          content = @Content(mediaType = "application/json",
-                         schema = @Schema(implementation = User.class))),
+                         schema = @Schema(implementation = UserResponseDto.class))),
             @ApiResponse(responseCode = "404", description = "User with that ID not found"),
             @ApiResponse(responseCode = "422", description = "Request contains invalid data"),
             @ApiResponse(responseCode = "401", description = "Unauthorized request"),
@@ -91,12 +108,12 @@ public class UserController {
     })
     @PutMapping(path = ID)
     @PreAuthorize(ONLY_OWNER_BY_ID)
-    public User updateUser(
+    public UserResponseDto updateUser(
             @Parameter(description = "ID of user to update")
             @PathVariable final long id,
             @Parameter(description = "User to update", schema = @Schema(implementation = UserDto.class))
             @RequestBody @Valid final UserDto userDto) {
-        return userService.updateUserById(id, userDto);
+        return UserResponseDto.from(userService.updateUserById(id, userDto));
     }
 
     @Operation(summary = "Delete user by ID")
@@ -0,0 +1,106 @@
+package hexlet.code.controller;
+
+import hexlet.code.dto.WebhookDto;
+import hexlet.code.entity.Webhook;
+import hexlet.code.service.WebhookService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import lombok.RequiredArgsConstructor;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestController;
+
+import jakarta.validation.Valid;
+import java.util.List;
+
+import static hexlet.code.controller.WebhookController.WEBHOOK_CONTROLLER_PATH;
+import static org.springframework.http.HttpStatus.CREATED;
+
+/**
+ * Subscriptions to task events. Events of a subscribed type are POSTed to the URL as a JSON array, in batches
+ * and at least once, so receivers should skip the event ids they have already seen.
+ * <p>
+ * Every batch is signed with the secret of the subscription: {@code X-Webhook-Signature} is {@code sha256=} and
+ * the hex HMAC-SHA256 of {@code X-Webhook-Timestamp}, a dot and the body. Users see and delete their own
+ * subscriptions only.
+ */
+@RestController
+@RequestMapping("${base-url}" + WEBHOOK_CONTROLLER_PATH)
+@RequiredArgsConstructor
+public class WebhookController {
+    public static final String WEBHOOK_CONTROLLER_PATH = "/webhooks";
+    public static final String ID = "/{id}";
+    public static final String AUTHORIZED_USERS_ONLY = "isAuthenticated()";
+    private static final String WEBHOOK_OWNER = "@ownership.isWebhookOwner(#id)";
+
+    private final WebhookService webhookService;
+    @Operation(summary = "Subscribe URL to task events of one type")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "201", description = "Webhook created",
+                         content = @Content(mediaType = "application/json",
+                         schema = @Schema(implementation = Webhook.class))),
+            @ApiResponse(responseCode = "422", description = "Request contains invalid data or URL is already "
+                    + "subscribed to the event type"),
+            @ApiResponse(responseCode = "401", description = "Unauthorized request")
+    })
+    @PostMapping("/")
+    @ResponseStatus(CREATED)
+    @PreAuthorize(AUTHORIZED_USERS_ONLY)
+    public Webhook createNewWebhook(
+            @Parameter(description = "Webhook to save", schema = @Schema(implementation = WebhookDto.class))
+            @RequestBody @Valid final WebhookDto webhookDto) {
+        return webhookService.createNewWebhook(webhookDto);
+    }
+    @Operation(summary = "Get webhook by ID")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Webhook found",
+                         content = @Content(mediaType = "application/json",
+                         schema = @Schema(implementation = Webhook.class))),
+            @ApiResponse(responseCode = "404", description = "Webhook with that ID not found"),
+            @ApiResponse(responseCode = "401", description = "Unauthorized request"),
+            @ApiResponse(responseCode = "403", description = "Webhook belongs to another user")
+    })
+    @GetMapping(path = ID)
+    @PreAuthorize(WEBHOOK_OWNER)
+    public Webhook getWebhookById(
+            @Parameter(description = "ID of webhook to find")
+            @PathVariable final long id) {
+        return webhookService.getWebhookById(id);
+    }
+    @Operation(summary = "Get list of webhooks of the current user")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "List of webhooks of the current user",
+                         content = @Content(mediaType = "application/json",
+                         schema = @Schema(implementation = Webhook.class))),
+            @ApiResponse(responseCode = "401", description = "Unauthorized request")
+    })
+    @GetMapping("/")
+    @PreAuthorize(AUTHORIZED_USERS_ONLY)
+    public List<Webhook> getAllWebhooks() {
+        return webhookService.getAllWebhooks();
+    }
+    @Operation(summary = "Delete webhook by ID")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Webhook deleted"),
+            @ApiResponse(responseCode = "404", description = "Webhook with that ID not found"),
+            @ApiResponse(responseCode = "401", description = "Unauthorized request"),
+            @ApiResponse(responseCode = "403", description = "Webhook belongs to another user")
+    })
+    @DeleteMapping(path = ID)
+    @PreAuthorize(WEBHOOK_OWNER)
+    public void deleteWebhook(
+            @Parameter(description = "ID of webhook to delete")
+            @PathVariable final long id) {
+        webhookService.deleteWebhookById(id);
+    }
+}
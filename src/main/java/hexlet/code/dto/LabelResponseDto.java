@@ -0,0 +1,34 @@
+package hexlet.code.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import hexlet.code.entity.Label;
+import hexlet.code.entity.Versioned;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.Date;
+
+/**
+ * Immutable copy of a label. It is what the labels cache holds, so a cached label can't be changed through
+ * a managed entity or attached to a persistence context of another request.
+ */
+@Getter
+@AllArgsConstructor
+public class LabelResponseDto implements Versioned {
+    private final Long id;
+    private final String name;
+    private final Date createdAt;
+    private final Date updatedAt;
+    @JsonIgnore
+    private final Long version;
+
+    public static LabelResponseDto from(final Label label) {
+        return new LabelResponseDto(
+                label.getId(),
+                label.getName(),
+                label.getCreatedAt(),
+                label.getUpdatedAt(),
+                label.getVersion()
+        );
+    }
+}
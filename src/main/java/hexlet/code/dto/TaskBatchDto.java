@@ -0,0 +1,20 @@
+package hexlet.code.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TaskBatchDto {
+    public static final int MAX_OPERATIONS = 1000;
+
+    @NotEmpty
+    @Size(max = MAX_OPERATIONS)
+    private List<@Valid TaskOperationDto> operations;
+}
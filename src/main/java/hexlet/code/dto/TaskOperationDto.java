@@ -0,0 +1,26 @@
+package hexlet.code.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TaskOperationDto {
+    @NotNull
+    private Type type;
+
+    private Long id;
+
+    @Valid
+    private TaskDto task;
+
+    public enum Type {
+        CREATE,
+        UPDATE,
+        DELETE
+    }
+}
@@ -0,0 +1,30 @@
+package hexlet.code.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import hexlet.code.dto.TaskOperationDto.Type;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import static com.fasterxml.jackson.annotation.JsonInclude.Include.NON_NULL;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@JsonInclude(NON_NULL)
+public class TaskOperationResultDto {
+    private int index;
+    private Type type;
+    private int status;
+    private Long id;
+    private TaskResponseDto task;
+    private String error;
+
+    @JsonIgnore
+    public boolean isFailed() {
+        return status >= 400;
+    }
+}
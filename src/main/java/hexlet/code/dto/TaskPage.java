@@ -0,0 +1,19 @@
+package hexlet.code.dto;
+
+import hexlet.code.repository.projection.VersionStamp;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+@Getter
+@AllArgsConstructor
+public class TaskPage {
+    private List<TaskResponseDto> tasks;
+
+    /** Opaque cursor of the next page, {@code null} when the last page is reached. */
+    private String nextCursor;
+
+    /** Versions of the page rows and of the statuses and labels they name. */
+    private List<VersionStamp> versionStamps;
+}
@@ -0,0 +1,28 @@
+package hexlet.code.dto;
+
+import jakarta.validation.constraints.Pattern;
+import java.util.Set;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Partial task update, fields left {@code null} keep their current values.
+ * A {@code null} can't be told from a missing field, so the executor can't be cleared here, only with PUT.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TaskPatchDto {
+    // Same as @NotBlank of TaskDto, except that a missing name is allowed
+    @Pattern(regexp = "(?s).*\\S.*")
+    private String name;
+
+    private String description;
+
+    private Long taskStatusId;
+
+    private Long executorId;
+
+    private Set<Long> labelIds;
+}
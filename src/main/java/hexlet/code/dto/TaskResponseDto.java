@@ -0,0 +1,104 @@
+package hexlet.code.dto;
+
+import hexlet.code.entity.Label;
+import hexlet.code.entity.Task;
+import hexlet.code.entity.TaskStatus;
+import hexlet.code.entity.User;
+import hexlet.code.repository.projection.TaskView;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Date;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TaskResponseDto {
+    private Long id;
+    private String name;
+    private String description;
+    private TaskStatusRef taskStatus;
+    private UserRef author;
+    private UserRef executor;
+    private Set<LabelRef> labels;
+    private Date createdAt;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class TaskStatusRef {
+        private Long id;
+        private String name;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class UserRef {
+        private Long id;
+        private String email;
+        private String firstName;
+        private String lastName;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class LabelRef {
+        private Long id;
+        private String name;
+    }
+
+    public static TaskResponseDto from(final TaskView task, final Set<LabelRef> labels) {
+        return TaskResponseDto.builder()
+                .id(task.id())
+                .name(task.name())
+                .description(task.description())
+                .taskStatus(task.taskStatusId() == null ? null
+                        : new TaskStatusRef(task.taskStatusId(), task.taskStatusName()))
+                .author(task.authorId() == null ? null
+                        : new UserRef(task.authorId(), task.authorEmail(), task.authorFirstName(),
+                                task.authorLastName()))
+                .executor(task.executorId() == null ? null
+                        : new UserRef(task.executorId(), task.executorEmail(), task.executorFirstName(),
+                                task.executorLastName()))
+                .labels(labels)
+                .createdAt(task.createdAt())
+                .build();
+    }
+
+    public static TaskResponseDto from(final Task task) {
+        return TaskResponseDto.builder()
+                .id(task.getId())
+                .name(task.getName())
+                .description(task.getDescription())
+                .taskStatus(Optional.ofNullable(task.getTaskStatus()).map(TaskResponseDto::toRef).orElse(null))
+                .author(Optional.ofNullable(task.getAuthor()).map(TaskResponseDto::toRef).orElse(null))
+                .executor(Optional.ofNullable(task.getExecutor()).map(TaskResponseDto::toRef).orElse(null))
+                .labels(Optional.ofNullable(task.getLabels())
+                        .map(labels -> labels.stream()
+                                .map(TaskResponseDto::toRef)
+                                .collect(Collectors.toSet()))
+                        .orElse(Set.of()))
+                .createdAt(task.getCreatedAt())
+                .build();
+    }
+
+    private static TaskStatusRef toRef(final TaskStatus taskStatus) {
+        return new TaskStatusRef(taskStatus.getId(), taskStatus.getName());
+    }
+
+    private static UserRef toRef(final User user) {
+        return new UserRef(user.getId(), user.getEmail(), user.getFirstName(), user.getLastName());
+    }
+
+    private static LabelRef toRef(final Label label) {
+        return new LabelRef(label.getId(), label.getName());
+    }
+}
@@ -0,0 +1,33 @@
+package hexlet.code.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import hexlet.code.entity.TaskStatus;
+import hexlet.code.entity.Versioned;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.Date;
+
+/**
+ * Immutable copy of a task status, held by the task statuses cache in place of the entity.
+ */
+@Getter
+@AllArgsConstructor
+public class TaskStatusResponseDto implements Versioned {
+    private final Long id;
+    private final String name;
+    private final Date createdAt;
+    private final Date updatedAt;
+    @JsonIgnore
+    private final Long version;
+
+    public static TaskStatusResponseDto from(final TaskStatus taskStatus) {
+        return new TaskStatusResponseDto(
+                taskStatus.getId(),
+                taskStatus.getName(),
+                taskStatus.getCreatedAt(),
+                taskStatus.getUpdatedAt(),
+                taskStatus.getVersion()
+        );
+    }
+}
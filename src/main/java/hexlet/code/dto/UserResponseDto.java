@@ -0,0 +1,40 @@
+package hexlet.code.dto;
+
+import hexlet.code.entity.User;
+import hexlet.code.repository.projection.UserView;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Date;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserResponseDto {
+    private Long id;
+    private String email;
+    private String firstName;
+    private String lastName;
+    private Date createdAt;
+
+    public static UserResponseDto from(final User user) {
+        return new UserResponseDto(
+                user.getId(),
+                user.getEmail(),
+                user.getFirstName(),
+                user.getLastName(),
+                user.getCreatedAt()
+        );
+    }
+
+    public static UserResponseDto from(final UserView user) {
+        return new UserResponseDto(
+                user.getId(),
+                user.getEmail(),
+                user.getFirstName(),
+                user.getLastName(),
+                user.getCreatedAt()
+        );
+    }
+}
@@ -0,0 +1,32 @@
+package hexlet.code.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.validator.constraints.URL;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class WebhookDto {
+    public static final String EVENT_TYPES = "task\\.(created|updated|deleted)";
+
+    // Length of the url column
+    @NotBlank
+    @Size(max = 2048)
+    @URL(regexp = "^https?:.*")
+    private String url;
+
+    @NotNull
+    @Pattern(regexp = EVENT_TYPES)
+    private String eventType;
+
+    // Key of the HMAC signature of every batch, it is never returned
+    @NotBlank
+    @Size(min = 16, max = 255)
+    private String secret;
+}
@@ -1,15 +1,19 @@
 package hexlet.code.entity;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.Entity;
 import jakarta.persistence.Id;
 import jakarta.persistence.Table;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.Temporal;
+import jakarta.persistence.Version;
 import lombok.Getter;
 import lombok.Setter;
 import lombok.NoArgsConstructor;
 import lombok.AllArgsConstructor;
+import org.hibernate.annotations.BatchSize;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.UpdateTimestamp;
 import jakarta.validation.constraints.NotBlank;
 
 import java.util.Date;
@@ -17,13 +21,15 @@ import java.util.Date;
 import static jakarta.persistence.GenerationType.IDENTITY;
 import static jakarta.persistence.TemporalType.TIMESTAMP;
 
+// Tasks are written with label references, the ones a response reads are loaded together
 @Entity
 @Table(name = "labels")
+@BatchSize(size = 100)
 @Getter
 @Setter
 @NoArgsConstructor
 @AllArgsConstructor
-public class Label {
+public class Label implements Versioned {
 
     @Id
     @GeneratedValue(strategy = IDENTITY)
@@ -35,4 +41,12 @@ public class Label {
     @CreationTimestamp
     @Temporal(TIMESTAMP)
     private Date createdAt;
+
+    @UpdateTimestamp
+    @Temporal(TIMESTAMP)
+    private Date updatedAt;
+
+    @Version
+    @JsonIgnore
+    private Long version;
 }
@@ -0,0 +1,69 @@
+package hexlet.code.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.hibernate.annotations.CreationTimestamp;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.Id;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import jakarta.persistence.Temporal;
+import jakarta.validation.constraints.NotNull;
+
+import java.util.Date;
+
+import static jakarta.persistence.GenerationType.SEQUENCE;
+import static jakarta.persistence.TemporalType.TIMESTAMP;
+
+/**
+ * A change event saved in the transaction of the change itself, so that it is published if and only if the change
+ * is committed. Rows are deleted by the relay once they are dispatched, or parked when they keep failing.
+ */
+@Entity
+@Table(name = "outbox_events")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OutboxEvent {
+    public static final String ID_SEQUENCE = "outbox_events_seq";
+
+    // Events of a task batch are inserted in JDBC batches together with the tasks
+    @Id
+    @GeneratedValue(strategy = SEQUENCE, generator = ID_SEQUENCE)
+    @SequenceGenerator(name = ID_SEQUENCE, sequenceName = ID_SEQUENCE, allocationSize = 50)
+    private Long id;
+
+    // E.g. task.created
+    @NotNull
+    private String eventType;
+
+    @NotNull
+    private Long aggregateId;
+
+    @NotNull
+    @Column(columnDefinition = "TEXT")
+    private String payload;
+
+    @CreationTimestamp
+    @Temporal(TIMESTAMP)
+    private Date createdAt;
+
+    // Failed dispatches of this event alone, a batch failure isn't counted against its events
+    private int attempts;
+
+    // The relay skips the event until then, set after a failed attempt
+    @Temporal(TIMESTAMP)
+    private Date nextAttemptAt;
+
+    // Set after the last attempt, a parked event stays in the table until it is handled by hand
+    @Temporal(TIMESTAMP)
+    private Date parkedAt;
+}
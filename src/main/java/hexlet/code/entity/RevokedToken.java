@@ -0,0 +1,54 @@
+package hexlet.code.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import jakarta.persistence.Temporal;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.util.Date;
+
+import static jakarta.persistence.GenerationType.IDENTITY;
+import static jakarta.persistence.TemporalType.TIMESTAMP;
+
+/**
+ * Either a single token revoked by its {@code jti}, or all tokens of a user issued up to {@code revokedBefore}.
+ * A row is needed only until {@code expiresAt}, after that every token it covers has expired anyway.
+ */
+@Entity
+@Table(name = "revoked_tokens")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RevokedToken {
+
+    @Id
+    @GeneratedValue(strategy = IDENTITY)
+    private Long id;
+
+    @Column(name = "jti", unique = true)
+    private String tokenId;
+
+    private Long userId;
+
+    @Temporal(TIMESTAMP)
+    private Date revokedBefore;
+
+    @NotNull
+    @Temporal(TIMESTAMP)
+    private Date expiresAt;
+
+    @CreationTimestamp
+    @Temporal(TIMESTAMP)
+    private Date createdAt;
+}
@@ -1,16 +1,19 @@
 package hexlet.code.entity;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.Getter;
 import lombok.Setter;
 import lombok.NoArgsConstructor;
 import lombok.AllArgsConstructor;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.UpdateTimestamp;
 
 import jakarta.persistence.Entity;
 import jakarta.persistence.Table;
 import jakarta.persistence.Id;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.Temporal;
+import jakarta.persistence.Version;
 import jakarta.validation.constraints.NotBlank;
 import java.util.Date;
 
@@ -23,7 +26,7 @@ import static jakarta.persistence.TemporalType.TIMESTAMP;
 @Setter
 @NoArgsConstructor
 @AllArgsConstructor
-public class TaskStatus {
+public class TaskStatus implements Versioned {
 
     @Id
     @GeneratedValue(strategy = IDENTITY)
@@ -35,4 +38,12 @@ public class TaskStatus {
     @CreationTimestamp
     @Temporal(TIMESTAMP)
     private Date createdAt;
+
+    @UpdateTimestamp
+    @Temporal(TIMESTAMP)
+    private Date updatedAt;
+
+    @Version
+    @JsonIgnore
+    private Long version;
 }
@@ -0,0 +1,11 @@
+package hexlet.code.entity;
+
+import java.util.Date;
+
+/**
+ * Entity with an optimistic lock version and a modification time, which are returned as ETag and Last-Modified.
+ */
+public interface Versioned {
+    Long getVersion();
+    Date getUpdatedAt();
+}
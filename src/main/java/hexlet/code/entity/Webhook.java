@@ -0,0 +1,62 @@
+package hexlet.code.entity;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.Id;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.Table;
+import jakarta.persistence.Temporal;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.util.Date;
+
+import static jakarta.persistence.FetchType.LAZY;
+import static jakarta.persistence.GenerationType.IDENTITY;
+import static jakarta.persistence.TemporalType.TIMESTAMP;
+
+/**
+ * Subscription of a URL to one type of outbox events. A URL subscribed to several types with the same secret gets
+ * them in the same batches. Only the owner sees and deletes the subscription.
+ */
+@Entity
+@Table(name = "webhooks")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class Webhook {
+
+    @Id
+    @GeneratedValue(strategy = IDENTITY)
+    private Long id;
+
+    @NotBlank
+    private String url;
+
+    @NotBlank
+    private String eventType;
+
+    @JsonIgnore
+    @NotNull
+    @ManyToOne(fetch = LAZY)
+    @JoinColumn(name = "owner_id")
+    private User owner;
+
+    @JsonIgnore
+    @NotBlank
+    private String secret;
+
+    @CreationTimestamp
+    @Temporal(TIMESTAMP)
+    private Date createdAt;
+}
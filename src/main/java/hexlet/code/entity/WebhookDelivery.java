@@ -0,0 +1,78 @@
+package hexlet.code.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.Id;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import jakarta.persistence.Temporal;
+import jakarta.validation.constraints.NotNull;
+
+import java.util.Date;
+
+import static jakarta.persistence.FetchType.LAZY;
+import static jakarta.persistence.GenerationType.SEQUENCE;
+import static jakarta.persistence.TemporalType.TIMESTAMP;
+
+/**
+ * An outbox event pending for one webhook. Rows are saved in the relay transaction together with the deletion of the
+ * event, and deleted once the receiver has accepted the batch with them.
+ */
+@Entity
+@Table(name = "webhook_deliveries")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class WebhookDelivery {
+    public static final String ID_SEQUENCE = "webhook_deliveries_seq";
+
+    // Deliveries of a relay batch are inserted in JDBC batches
+    @Id
+    @GeneratedValue(strategy = SEQUENCE, generator = ID_SEQUENCE)
+    @SequenceGenerator(name = ID_SEQUENCE, sequenceName = ID_SEQUENCE, allocationSize = 50)
+    private Long id;
+
+    @NotNull
+    @ManyToOne(fetch = LAZY)
+    @JoinColumn(name = "webhook_id")
+    private Webhook webhook;
+
+    // Id of the outbox event, the same for every delivery of the event
+    @NotNull
+    private Long eventId;
+
+    @NotNull
+    private String eventType;
+
+    @NotNull
+    @Column(columnDefinition = "TEXT")
+    private String payload;
+
+    @Temporal(TIMESTAMP)
+    private Date eventCreatedAt;
+
+    // Failed POSTs of the row, rows of a batch may have different counts
+    private int attempts;
+
+    // The row is due from then, a claimed row is leased by moving it forward
+    @NotNull
+    @Temporal(TIMESTAMP)
+    private Date nextAttemptAt;
+
+    // Set after the last attempt or when the host is refused, a parked row is no longer sent
+    @Temporal(TIMESTAMP)
+    private Date parkedAt;
+
+    private String lastError;
+}
@@ -0,0 +1,7 @@
+package hexlet.code.event;
+
+/**
+ * Published by services after an entity is created, updated or deleted.
+ */
+public record EntityChangedEvent(Class<?> entityType, Long id) {
+}
@@ -0,0 +1,13 @@
+package hexlet.code.event;
+
+/**
+ * Published by the task service after a task is created, updated or deleted.
+ */
+public record TaskChangedEvent(Type type, Long id) {
+
+    public enum Type {
+        CREATED,
+        UPDATED,
+        DELETED
+    }
+}
@@ -0,0 +1,154 @@
+package hexlet.code.event;
+
+import com.querydsl.core.BooleanBuilder;
+import com.querydsl.core.types.Constant;
+import com.querydsl.core.types.Expression;
+import com.querydsl.core.types.Operation;
+import com.querydsl.core.types.Operator;
+import com.querydsl.core.types.Ops;
+import com.querydsl.core.types.Path;
+import com.querydsl.core.types.PathMetadata;
+import com.querydsl.core.types.Predicate;
+import hexlet.code.dto.TaskResponseDto;
+import hexlet.code.exception.InvalidFilterException;
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.BeanWrapperImpl;
+import org.springframework.core.ResolvableType;
+
+import java.beans.PropertyDescriptor;
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Filter of a task event stream: the predicate the task list builds from the same parameters with the bindings
+ * of TaskRepository, evaluated in memory against the task being sent. Paths of Task are read from TaskResponseDto,
+ * which has the same properties, a path through {@code any()} matches if one of the collection elements does,
+ * and referenced entities are compared by id. Only the operations the bindings produce are supported.
+ */
+public record TaskEventFilter(Predicate predicate) {
+
+    private static final Set<Operator> LOGICAL_OPERATORS = Set.of(Ops.AND, Ops.OR, Ops.NOT);
+    private static final Set<Operator> COMPARISON_OPERATORS = Set.of(Ops.EQ, Ops.NE, Ops.IN, Ops.NOT_IN,
+            Ops.IS_NULL, Ops.IS_NOT_NULL);
+    private static final String ID = "id";
+
+    /**
+     * @param predicate predicate of the task list, {@code null} when no filter is given
+     * @throws InvalidFilterException if the predicate can't be checked against a task in memory
+     */
+    public static TaskEventFilter of(final Predicate predicate) {
+        // The list gets an empty builder when there are no filter parameters
+        final Predicate filter = predicate instanceof BooleanBuilder builder ? builder.getValue() : predicate;
+        if (filter != null) {
+            validate(filter);
+        }
+        return new TaskEventFilter(filter);
+    }
+
+    public boolean matches(final TaskResponseDto task) {
+        return predicate == null || test(predicate, task);
+    }
+
+    private static boolean test(final Expression<?> expression, final Object task) {
+        final Operation<?> operation = (Operation<?>) expression;
+        final List<Expression<?>> args = operation.getArgs();
+        final Operator operator = operation.getOperator();
+        if (operator == Ops.AND) {
+            return args.stream().allMatch(arg -> test(arg, task));
+        }
+        if (operator == Ops.OR) {
+            return args.stream().anyMatch(arg -> test(arg, task));
+        }
+        if (operator == Ops.NOT) {
+            return !test(args.get(0), task);
+        }
+
+        final List<Object> values = read((Path<?>) args.get(0), task);
+        if (operator == Ops.IS_NULL) {
+            return values.stream().anyMatch(Objects::isNull);
+        }
+        if (operator == Ops.IS_NOT_NULL) {
+            return values.stream().anyMatch(Objects::nonNull);
+        }
+        final Object constant = ((Constant<?>) args.get(1)).getConstant();
+        final Set<Object> expected = constant instanceof Collection<?> collection
+                ? collection.stream().map(TaskEventFilter::identity).collect(Collectors.toSet())
+                : Set.of(identity(constant));
+        final boolean contained = values.stream()
+                .map(TaskEventFilter::identity)
+                .anyMatch(expected::contains);
+        return operator == Ops.EQ || operator == Ops.IN ? contained : !contained && !values.contains(null);
+    }
+
+    // Values of the path, several for a path through a collection, null where a parent is missing
+    private static List<Object> read(final Path<?> path, final Object task) {
+        final PathMetadata metadata = path.getMetadata();
+        return switch (metadata.getPathType()) {
+            case VARIABLE -> List.of(task);
+            case PROPERTY -> read(metadata.getParent(), task).stream()
+                    .map(value -> readProperty(value, metadata.getName()))
+                    .toList();
+            case COLLECTION_ANY -> read(metadata.getParent(), task).stream()
+                    .filter(Objects::nonNull)
+                    .flatMap(collection -> ((Collection<?>) collection).stream())
+                    .map(Object.class::cast)
+                    .toList();
+            default -> throw new InvalidFilterException(path.toString());
+        };
+    }
+
+    private static Object readProperty(final Object value, final String property) {
+        return value == null ? null : new BeanWrapperImpl(value).getPropertyValue(property);
+    }
+
+    // Bindings convert ids of references to entities, tasks refer to them with ids
+    private static Object identity(final Object value) {
+        if (value == null || value instanceof Number || value instanceof CharSequence || value instanceof Date
+                || value instanceof Boolean || value instanceof Enum<?>) {
+            return value;
+        }
+        final BeanWrapperImpl wrapper = new BeanWrapperImpl(value);
+        return wrapper.isReadableProperty(ID) ? wrapper.getPropertyValue(ID) : value;
+    }
+
+    private static void validate(final Expression<?> expression) {
+        if (!(expression instanceof Operation<?> operation)) {
+            throw new InvalidFilterException(expression.toString());
+        }
+        final Operator operator = operation.getOperator();
+        if (LOGICAL_OPERATORS.contains(operator)) {
+            operation.getArgs().forEach(TaskEventFilter::validate);
+            return;
+        }
+        final List<Expression<?>> args = operation.getArgs();
+        if (!COMPARISON_OPERATORS.contains(operator) || !(args.get(0) instanceof Path<?> path)
+                || args.size() > 1 && !(args.get(1) instanceof Constant<?>)) {
+            throw new InvalidFilterException(expression.toString());
+        }
+        typeOf(path);
+    }
+
+    private static ResolvableType typeOf(final Path<?> path) {
+        final PathMetadata metadata = path.getMetadata();
+        final ResolvableType type = switch (metadata.getPathType()) {
+            case VARIABLE -> ResolvableType.forClass(TaskResponseDto.class);
+            case PROPERTY -> {
+                final Class<?> parent = typeOf(metadata.getParent()).resolve();
+                final PropertyDescriptor property = parent == null ? null
+                        : BeanUtils.getPropertyDescriptor(parent, metadata.getName());
+                yield property == null || property.getReadMethod() == null ? ResolvableType.NONE
+                        : ResolvableType.forMethodReturnType(property.getReadMethod());
+            }
+            case COLLECTION_ANY -> typeOf(metadata.getParent()).asCollection().getGeneric(0);
+            default -> ResolvableType.NONE;
+        };
+        if (type == ResolvableType.NONE) {
+            throw new InvalidFilterException(path.toString());
+        }
+        return type;
+    }
+}
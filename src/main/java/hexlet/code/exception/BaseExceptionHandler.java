@@ -1,8 +1,11 @@
 package hexlet.code.exception;
 
+import hexlet.code.dto.TaskOperationResultDto;
 import java.util.List;
 import java.util.NoSuchElementException;
+import org.springframework.core.convert.ConversionException;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.converter.HttpMessageNotReadableException;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
@@ -14,9 +17,11 @@ import org.springframework.web.bind.annotation.ResponseBody;
 import org.springframework.web.bind.annotation.ResponseStatus;
 
 import static org.springframework.http.HttpStatus.BAD_REQUEST;
+import static org.springframework.http.HttpStatus.CONFLICT;
 import static org.springframework.http.HttpStatus.FORBIDDEN;
 import static org.springframework.http.HttpStatus.INTERNAL_SERVER_ERROR;
 import static org.springframework.http.HttpStatus.NOT_FOUND;
+import static org.springframework.http.HttpStatus.SERVICE_UNAVAILABLE;
 import static org.springframework.http.HttpStatus.UNAUTHORIZED;
 import static org.springframework.http.HttpStatus.UNPROCESSABLE_ENTITY;
 
@@ -42,24 +47,74 @@ public class BaseExceptionHandler {
         return exception.getMessage();
     }
 
+    @ResponseStatus(BAD_REQUEST)
+    @ExceptionHandler(InvalidCursorException.class)
+    public String invalidCursorExceptionHandler(InvalidCursorException exception) {
+        return exception.getMessage();
+    }
+
+    // A filter parameter of a task list or stream that can't be converted to the type of its property
+    @ResponseStatus(BAD_REQUEST)
+    @ExceptionHandler(ConversionException.class)
+    public String conversionExceptionHandler(ConversionException exception) {
+        return exception.getMessage();
+    }
+
+    @ResponseStatus(BAD_REQUEST)
+    @ExceptionHandler(InvalidFilterException.class)
+    public String invalidFilterExceptionHandler(InvalidFilterException exception) {
+        return exception.getMessage();
+    }
+
     @ResponseStatus(UNPROCESSABLE_ENTITY)
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public List<ObjectError> validationExceptionsHandler(MethodArgumentNotValidException exception) {
         return exception.getAllErrors();
     }
 
+    @ResponseStatus(UNPROCESSABLE_ENTITY)
+    @ExceptionHandler(ReferencedEntityNotFoundException.class)
+    public String referencedEntityNotFoundExceptionHandler(ReferencedEntityNotFoundException exception) {
+        return exception.getMessage();
+    }
+
+    @ResponseStatus(UNPROCESSABLE_ENTITY)
+    @ExceptionHandler(TaskBatchFailedException.class)
+    public List<TaskOperationResultDto> taskBatchFailedExceptionHandler(TaskBatchFailedException exception) {
+        return exception.getResults();
+    }
+
     @ResponseStatus(UNPROCESSABLE_ENTITY)
     @ExceptionHandler(DataIntegrityViolationException.class)
     public String validationExceptionsHandler(DataIntegrityViolationException exception) {
         return exception.getCause().getCause().getMessage();
     }
 
+    // Entity was changed by a concurrent request since it was read
+    @ResponseStatus(CONFLICT)
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public String optimisticLockingFailureExceptionHandler(OptimisticLockingFailureException exception) {
+        return exception.getMessage();
+    }
+
+    @ResponseStatus(SERVICE_UNAVAILABLE)
+    @ExceptionHandler(SubscriberLimitExceededException.class)
+    public String subscriberLimitExceededExceptionHandler(SubscriberLimitExceededException exception) {
+        return exception.getMessage();
+    }
+
     @ResponseStatus(FORBIDDEN)
     @ExceptionHandler(AccessDeniedException.class)
     public String accessDeniedException(AccessDeniedException exception) {
         return exception.getMessage();
     }
 
+    @ResponseStatus(UNAUTHORIZED)
+    @ExceptionHandler(InvalidTokenException.class)
+    public String invalidTokenExceptionHandler(InvalidTokenException exception) {
+        return exception.getMessage();
+    }
+
     @ResponseStatus(UNAUTHORIZED)
     @ExceptionHandler(UsernameNotFoundException.class)
     public String userNitFoundExceptionHandler(UsernameNotFoundException exception) {
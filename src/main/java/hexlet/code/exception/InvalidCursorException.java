@@ -0,0 +1,7 @@
+package hexlet.code.exception;
+
+public class InvalidCursorException extends RuntimeException {
+    public InvalidCursorException(final String cursor) {
+        super("Invalid page cursor: " + cursor);
+    }
+}
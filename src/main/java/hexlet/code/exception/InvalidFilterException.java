@@ -0,0 +1,7 @@
+package hexlet.code.exception;
+
+public class InvalidFilterException extends RuntimeException {
+    public InvalidFilterException(final String filter) {
+        super("Invalid filter " + filter);
+    }
+}
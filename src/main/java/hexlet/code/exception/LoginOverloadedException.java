@@ -0,0 +1,9 @@
+package hexlet.code.exception;
+
+import org.springframework.security.authentication.AuthenticationServiceException;
+
+public class LoginOverloadedException extends AuthenticationServiceException {
+    public LoginOverloadedException(final String message) {
+        super(message);
+    }
+}
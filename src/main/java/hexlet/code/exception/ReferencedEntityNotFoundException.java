@@ -0,0 +1,9 @@
+package hexlet.code.exception;
+
+import java.util.Collection;
+
+public class ReferencedEntityNotFoundException extends RuntimeException {
+    public ReferencedEntityNotFoundException(final String entityName, final Collection<Long> ids) {
+        super(entityName + " with ids " + ids + " not found");
+    }
+}
@@ -0,0 +1,7 @@
+package hexlet.code.exception;
+
+public class SubscriberLimitExceededException extends RuntimeException {
+    public SubscriberLimitExceededException(final String message) {
+        super(message);
+    }
+}
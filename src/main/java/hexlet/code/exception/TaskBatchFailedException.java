@@ -0,0 +1,15 @@
+package hexlet.code.exception;
+
+import hexlet.code.dto.TaskOperationResultDto;
+import java.util.List;
+import lombok.Getter;
+
+@Getter
+public class TaskBatchFailedException extends RuntimeException {
+    private final List<TaskOperationResultDto> results;
+
+    public TaskBatchFailedException(final List<TaskOperationResultDto> results) {
+        super("Batch is not applied, some operations failed");
+        this.results = results;
+    }
+}
@@ -1,36 +1,50 @@
 package hexlet.code.filter;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
-import hexlet.code.component.JWTUtils;
+import hexlet.code.component.PasswordHashingExecutor;
+import hexlet.code.config.security.AuthenticatedUserDetails;
+import hexlet.code.config.security.RefreshTokenCookie;
 import hexlet.code.dto.LoginDto;
+import hexlet.code.dto.TokenPair;
+import hexlet.code.exception.LoginOverloadedException;
+import hexlet.code.service.TokenService;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.AuthenticationException;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 import org.springframework.security.web.util.matcher.RequestMatcher;
 
 import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import java.io.IOException;
-import java.util.Map;
 import java.util.stream.Collectors;
 
+import static org.springframework.http.HttpHeaders.RETRY_AFTER;
+import static org.springframework.http.HttpHeaders.SET_COOKIE;
+import static org.springframework.http.HttpStatus.SERVICE_UNAVAILABLE;
+
 public class JWTAuthenticationFilter extends UsernamePasswordAuthenticationFilter {
 
     private static final ObjectMapper MAPPER = new ObjectMapper();
 
-    private final JWTUtils jwtUtils;
+    private final TokenService tokenService;
+    private final RefreshTokenCookie refreshTokenCookie;
+    private final PasswordHashingExecutor passwordHashingExecutor;
 
     public JWTAuthenticationFilter(final AuthenticationManager authenticationManager,
                                    final RequestMatcher loginRequest,
-                                   final JWTUtils jwtUtils) {
+                                   final TokenService tokenService,
+                                   final RefreshTokenCookie refreshTokenCookie,
+                                   final PasswordHashingExecutor passwordHashingExecutor) {
         super(authenticationManager);
         super.setRequiresAuthenticationRequestMatcher(loginRequest);
-        this.jwtUtils = jwtUtils;
+        this.tokenService = tokenService;
+        this.refreshTokenCookie = refreshTokenCookie;
+        this.passwordHashingExecutor = passwordHashingExecutor;
     }
 
     @Override
@@ -42,7 +56,7 @@ public class JWTAuthenticationFilter extends UsernamePasswordAuthenticationFilte
                 loginData.getPassword()
         );
         setDetails(request, authRequest);
-        return getAuthenticationManager().authenticate(authRequest);
+        return passwordHashingExecutor.execute(() -> getAuthenticationManager().authenticate(authRequest));
     }
 
     private LoginDto getLoginData(final HttpServletRequest request) throws AuthenticationException {
@@ -61,9 +75,23 @@ public class JWTAuthenticationFilter extends UsernamePasswordAuthenticationFilte
                                             final HttpServletResponse response,
                                             final FilterChain chain,
                                             final Authentication authResult) throws IOException {
-        final UserDetails user = (UserDetails) authResult.getPrincipal();
-        final String token = jwtUtils.createJWSToken(Map.of(SPRING_SECURITY_FORM_USERNAME_KEY, user.getUsername()));
+        final AuthenticatedUserDetails user = (AuthenticatedUserDetails) authResult.getPrincipal();
+        final TokenPair tokens = tokenService.createTokens(user.getId(), user.getUsername());
+
+        response.addHeader(SET_COOKIE, refreshTokenCookie.create(tokens.getRefreshToken()).toString());
+        response.getWriter().println(tokens.getAccessToken());
+    }
 
-        response.getWriter().println(token);
+    @Override
+    protected void unsuccessfulAuthentication(final HttpServletRequest request,
+                                              final HttpServletResponse response,
+                                              final AuthenticationException failed)
+            throws IOException, ServletException {
+        if (failed instanceof LoginOverloadedException) {
+            response.setHeader(RETRY_AFTER, String.valueOf(passwordHashingExecutor.getRetryAfter().toSeconds()));
+            response.sendError(SERVICE_UNAVAILABLE.value(), failed.getMessage());
+            return;
+        }
+        super.unsuccessfulAuthentication(request, response, failed);
     }
 }
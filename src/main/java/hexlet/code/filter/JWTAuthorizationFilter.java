@@ -1,6 +1,12 @@
 package hexlet.code.filter;
 
+import hexlet.code.component.JWTClaimsCache;
 import hexlet.code.component.JWTUtils;
+import hexlet.code.component.TokenDenylist;
+import hexlet.code.config.security.AuthenticatedUser;
+import io.jsonwebtoken.JwtException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.web.util.matcher.RequestMatcher;
@@ -11,23 +17,41 @@ import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import java.io.IOException;
+import java.util.Map;
 import java.util.Optional;
 
+import static hexlet.code.component.JWTUtils.TokenType.ACCESS;
+import static hexlet.code.component.JWTUtils.USER_ID_CLAIM;
 import static hexlet.code.config.security.SecurityConfig.DEFAULT_AUTHORITIES;
 import static org.springframework.http.HttpHeaders.AUTHORIZATION;
+import static org.springframework.http.HttpHeaders.WWW_AUTHENTICATE;
+import static org.springframework.http.HttpStatus.UNAUTHORIZED;
 import static org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter.SPRING_SECURITY_FORM_USERNAME_KEY;
 
 public class JWTAuthorizationFilter extends OncePerRequestFilter {
 
+    public static final String PARSE_METRIC_NAME = "jwt.parse";
+
     private static final String BEARER = "Bearer";
+    private static final String INVALID_TOKEN_CHALLENGE = BEARER + " error=\"invalid_token\"";
 
     private final RequestMatcher publicUrls;
-    private final JWTUtils jwtUtils;
+    private final JWTClaimsCache jwtClaimsCache;
+    private final TokenDenylist tokenDenylist;
+    private final MeterRegistry meterRegistry;
+    private final Timer validTokenTimer;
+    private final Timer invalidTokenTimer;
 
     public JWTAuthorizationFilter(final RequestMatcher publicUrls,
-                                  final JWTUtils jwtUtils) {
+                                  final JWTClaimsCache jwtClaimsCache,
+                                  final TokenDenylist tokenDenylist,
+                                  final MeterRegistry meterRegistry) {
         this.publicUrls = publicUrls;
-        this.jwtUtils = jwtUtils;
+        this.jwtClaimsCache = jwtClaimsCache;
+        this.tokenDenylist = tokenDenylist;
+        this.meterRegistry = meterRegistry;
+        this.validTokenTimer = parseTimer("SUCCESS");
+        this.invalidTokenTimer = parseTimer("INVALID");
     }
 
     @Override
@@ -40,24 +64,68 @@ public class JWTAuthorizationFilter extends OncePerRequestFilter {
                                     final HttpServletResponse response,
                                     final FilterChain filterChain) throws ServletException, IOException {
 
-        final var authToken = Optional.ofNullable(request.getHeader(AUTHORIZATION))
+        // Includes hits of the claims cache, its own metrics tell how many tokens were actually verified
+        final Timer.Sample sample = Timer.start(meterRegistry);
+        final Optional<String> token = Optional.ofNullable(request.getHeader(AUTHORIZATION))
                 .map(header -> header.replaceFirst("^" + BEARER, ""))
                 .map(String::trim)
-                .map(jwtUtils::readJWSToken)
-                .map(claims -> claims.get(SPRING_SECURITY_FORM_USERNAME_KEY))
-                .map(Object::toString)
+                .filter(value -> !value.isEmpty());
+        if (token.isEmpty()) {
+            sample.stop(invalidTokenTimer);
+            reject(response, BEARER, "Access token is missing");
+            return;
+        }
+        final Map<String, Object> claims;
+        try {
+            claims = jwtClaimsCache.readJWSToken(token.get());
+        } catch (JwtException | IllegalArgumentException e) {
+            // An expired token is answered with 401 too, so that the client refreshes it
+            sample.stop(invalidTokenTimer);
+            reject(response, INVALID_TOKEN_CHALLENGE, e.getMessage());
+            return;
+        }
+        sample.stop(validTokenTimer);
+
+        // Both checks are in memory, the request doesn't touch the database before the controller
+        if (!JWTUtils.isTokenOfType(claims, ACCESS) || tokenDenylist.isRevoked(claims)) {
+            reject(response, INVALID_TOKEN_CHALLENGE, "Token is revoked or is not an access token");
+            return;
+        }
+
+        final var authToken = buildPrincipal(claims)
                 .map(this::buildAuthToken)
                 .orElseThrow();
-
-        System.out.println(authToken);
+        // Kept for logout, which revokes the token by its claims
+        authToken.setDetails(claims);
 
         SecurityContextHolder.getContext().setAuthentication(authToken);
         filterChain.doFilter(request, response);
     }
 
-    private UsernamePasswordAuthenticationToken buildAuthToken(final String username) {
+    private static void reject(final HttpServletResponse response,
+                               final String challenge,
+                               final String message) throws IOException {
+        response.setHeader(WWW_AUTHENTICATE, challenge);
+        response.sendError(UNAUTHORIZED.value(), message);
+    }
+
+    private Timer parseTimer(final String outcome) {
+        return Timer.builder(PARSE_METRIC_NAME)
+                .description("Reading and verifying of access tokens")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    private Optional<AuthenticatedUser> buildPrincipal(final Map<String, Object> claims) {
+        final Long userId = claims.get(USER_ID_CLAIM) instanceof Number id ? id.longValue() : null;
+        return Optional.ofNullable(claims.get(SPRING_SECURITY_FORM_USERNAME_KEY))
+                .map(Object::toString)
+                .map(username -> new AuthenticatedUser(userId, username));
+    }
+
+    private UsernamePasswordAuthenticationToken buildAuthToken(final AuthenticatedUser principal) {
         return new UsernamePasswordAuthenticationToken(
-                username,
+                principal,
                 null,
                 DEFAULT_AUTHORITIES
         );
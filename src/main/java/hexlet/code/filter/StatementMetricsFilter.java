@@ -0,0 +1,141 @@
+package hexlet.code.filter;
+
+import hexlet.code.component.metrics.EndpointTag;
+import hexlet.code.component.metrics.QueryRecorder;
+import hexlet.code.component.metrics.QueryRecorder.Queries;
+import hexlet.code.component.metrics.QueryRecorder.Query;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.actuate.metrics.http.Outcome;
+import org.springframework.security.web.util.OnCommittedResponseWrapper;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Records how many SQL statements every request has run and how long they took, tagged like http.server.requests.
+ * Requests over the statement budget or with slow statements are logged with their SQL and controller method.
+ * Only statements of the request thread are counted, not those of a streamed export or of the login password check.
+ */
+@Slf4j
+public class StatementMetricsFilter extends OncePerRequestFilter {
+
+    public static final String METRIC_NAME = "http.server.requests.statements";
+    public static final String DB_TIME_METRIC_NAME = "http.server.requests.db";
+    public static final String QUERY_COUNT_HEADER = "X-Query-Count";
+    // Milliseconds with a fractional part
+    public static final String QUERY_TIME_HEADER = "X-Query-Time";
+
+    private static final int LOGGED_STATEMENTS = 5;
+    private static final double NANOS_IN_MILLI = 1_000_000.0;
+
+    private final QueryRecorder queryRecorder;
+    private final MeterRegistry meterRegistry;
+    private final int statementBudget;
+    private final boolean headersEnabled;
+
+    public StatementMetricsFilter(final QueryRecorder queryRecorder,
+                                  final MeterRegistry meterRegistry,
+                                  final int statementBudget,
+                                  final boolean headersEnabled) {
+        this.queryRecorder = queryRecorder;
+        this.meterRegistry = meterRegistry;
+        this.statementBudget = statementBudget;
+        this.headersEnabled = headersEnabled;
+    }
+
+    @Override
+    protected void doFilterInternal(final HttpServletRequest request,
+                                    final HttpServletResponse response,
+                                    final FilterChain filterChain) throws ServletException, IOException {
+        final Queries queries = queryRecorder.start();
+        try {
+            filterChain.doFilter(request, headersEnabled ? new QueryHeadersResponse(response, queries) : response);
+        } finally {
+            queryRecorder.stop();
+            if (headersEnabled && !response.isCommitted()) {
+                addHeaders(response, queries);
+            }
+            record(request, response, queries);
+        }
+    }
+
+    private void record(final HttpServletRequest request, final HttpServletResponse response, final Queries queries) {
+        final String endpoint = EndpointTag.of(request);
+        final String outcome = Outcome.forStatus(response.getStatus()).name();
+        DistributionSummary.builder(METRIC_NAME)
+                .description("SQL statements executed per request")
+                .baseUnit("statements")
+                .tag(EndpointTag.NAME, endpoint)
+                .tag("outcome", outcome)
+                .register(meterRegistry)
+                .record(queries.getCount());
+        Timer.builder(DB_TIME_METRIC_NAME)
+                .description("Time spent executing SQL statements per request")
+                .tag(EndpointTag.NAME, endpoint)
+                .tag("outcome", outcome)
+                .register(meterRegistry)
+                .record(queries.getTotalNanos(), TimeUnit.NANOSECONDS);
+
+        if (queries.getCount() > statementBudget) {
+            log.warn("{} ({}) ran {} statements in {} ms, over the budget of {}. Most repeated:\n{}",
+                    endpoint, handlerOf(request), queries.getCount(), toMillis(queries.getTotalNanos()),
+                    statementBudget, join(queries.getMostRepeated(LOGGED_STATEMENTS)));
+        }
+        if (!queries.getSlowQueries().isEmpty()) {
+            log.warn("{} ({}) ran {} slow statements:\n{}",
+                    endpoint, handlerOf(request), queries.getSlowQueries().size(), join(queries.getSlowQueries()));
+        }
+    }
+
+    private static String handlerOf(final HttpServletRequest request) {
+        return request.getAttribute(HandlerMapping.BEST_MATCHING_HANDLER_ATTRIBUTE) instanceof HandlerMethod handler
+                ? handler.getBeanType().getSimpleName() + "#" + handler.getMethod().getName()
+                : "no handler";
+    }
+
+    private static String join(final List<Query> queries) {
+        return queries.stream()
+                .map(query -> "  " + query)
+                .collect(Collectors.joining("\n"));
+    }
+
+    private static long toMillis(final long nanos) {
+        return TimeUnit.NANOSECONDS.toMillis(nanos);
+    }
+
+    private static void addHeaders(final HttpServletResponse response, final Queries queries) {
+        response.setHeader(QUERY_COUNT_HEADER, String.valueOf(queries.getCount()));
+        response.setHeader(QUERY_TIME_HEADER,
+                String.format(Locale.ROOT, "%.2f", queries.getTotalNanos() / NANOS_IN_MILLI));
+    }
+
+    /**
+     * Headers can't be added once the body starts going out, so they are set right before the response is committed.
+     */
+    private static final class QueryHeadersResponse extends OnCommittedResponseWrapper {
+        private final Queries queries;
+
+        QueryHeadersResponse(final HttpServletResponse response, final Queries queries) {
+            super(response);
+            this.queries = queries;
+        }
+
+        @Override
+        protected void onResponseCommitted() {
+            addHeaders(this, queries);
+        }
+    }
+}
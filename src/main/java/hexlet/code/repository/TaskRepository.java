@@ -1,11 +1,37 @@
 package hexlet.code.repository;
 
+import hexlet.code.entity.Label;
+import hexlet.code.entity.QTask;
 import hexlet.code.entity.Task;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.querydsl.QuerydslPredicateExecutor;
+import org.springframework.data.querydsl.binding.QuerydslBinderCustomizer;
+import org.springframework.data.querydsl.binding.QuerydslBindings;
 
+import java.util.Objects;
 import java.util.Optional;
 
-public interface TaskRepository extends JpaRepository<Task, Long>, QuerydslPredicateExecutor<Task> {
+public interface TaskRepository extends JpaRepository<Task, Long>, QuerydslPredicateExecutor<Task>,
+        TaskRepositoryCustom, QuerydslBinderCustomizer<QTask> {
+
+    // Labels are matched by id: binding the Label entity into "member of" fails a Hibernate assertion
+    @Override
+    default void customize(final QuerydslBindings bindings, final QTask task) {
+        bindings.bind(task.labels).first((path, labels) -> path.any().id.in(labels.stream()
+                .filter(Objects::nonNull)
+                .map(Label::getId)
+                .toList()));
+    }
+
+    @Override
+    @EntityGraph(attributePaths = {"taskStatus", "author", "executor", "labels"})
+    Optional<Task> findById(Long id);
+
     Optional<Task> findByName(String name);
+
+    // Reads the author_id column only, without joining or loading the task
+    @Query("SELECT t.author.id FROM Task t WHERE t.id = :id")
+    Optional<Long> findAuthorIdById(Long id);
 }
@@ -0,0 +1,17 @@
+package hexlet.code.repository;
+
+import com.querydsl.core.types.OrderSpecifier;
+import com.querydsl.core.types.Predicate;
+import hexlet.code.repository.projection.TaskLabelView;
+import hexlet.code.repository.projection.TaskView;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
+public interface TaskRepositoryCustom {
+    List<TaskView> findPage(Predicate predicate, long limit, OrderSpecifier<?>... orders);
+    Stream<TaskView> streamAll(Predicate predicate, int fetchSize);
+    List<TaskLabelView> findLabels(Collection<Long> taskIds);
+    long deleteWithoutLoadingById(long id);
+}
@@ -0,0 +1,92 @@
+package hexlet.code.repository;
+
+import com.querydsl.core.types.OrderSpecifier;
+import com.querydsl.core.types.Predicate;
+import com.querydsl.core.types.Projections;
+import com.querydsl.jpa.impl.JPAQuery;
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import hexlet.code.entity.QLabel;
+import hexlet.code.entity.QTask;
+import hexlet.code.entity.QTaskStatus;
+import hexlet.code.entity.QUser;
+import hexlet.code.entity.Task;
+import hexlet.code.repository.projection.TaskLabelView;
+import hexlet.code.repository.projection.TaskView;
+import jakarta.persistence.EntityManager;
+import org.hibernate.jpa.HibernateHints;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
+public class TaskRepositoryCustomImpl implements TaskRepositoryCustom {
+
+    private static final QTask TASK = QTask.task;
+    private static final QTaskStatus TASK_STATUS = new QTaskStatus("taskStatus");
+    private static final QUser AUTHOR = new QUser("author");
+    private static final QUser EXECUTOR = new QUser("executor");
+    private static final QLabel LABEL = QLabel.label;
+
+    private final EntityManager entityManager;
+    private final JPAQueryFactory queryFactory;
+
+    public TaskRepositoryCustomImpl(final EntityManager entityManager) {
+        this.entityManager = entityManager;
+        this.queryFactory = new JPAQueryFactory(entityManager);
+    }
+
+    @Override
+    public List<TaskView> findPage(final Predicate predicate, final long limit, final OrderSpecifier<?>... orders) {
+        return selectTaskViews()
+                .where(predicate)
+                .orderBy(orders)
+                .limit(limit)
+                .fetch();
+    }
+
+    @Override
+    public Stream<TaskView> streamAll(final Predicate predicate, final int fetchSize) {
+        return selectTaskViews()
+                .where(predicate)
+                .orderBy(TASK.id.asc())
+                .setHint(HibernateHints.HINT_FETCH_SIZE, fetchSize)
+                .stream();
+    }
+
+    @Override
+    public List<TaskLabelView> findLabels(final Collection<Long> taskIds) {
+        return queryFactory.select(Projections.constructor(TaskLabelView.class, TASK.id, LABEL.id, LABEL.name))
+                .from(TASK)
+                .join(TASK.labels, LABEL)
+                .where(TASK.id.in(taskIds))
+                .fetch();
+    }
+
+    // Hibernate clears the task_label rows before the task row. Only the deleted task is detached, so a managed copy
+    // of it is not flushed, while other entities of the transaction, such as earlier tasks of a batch, stay managed.
+    // getReference doesn't query: it returns the managed copy or an uninitialized proxy
+    @Override
+    public long deleteWithoutLoadingById(final long id) {
+        entityManager.flush();
+        final long deleted = queryFactory.delete(TASK)
+                .where(TASK.id.eq(id))
+                .execute();
+        entityManager.detach(entityManager.getReference(Task.class, id));
+        return deleted;
+    }
+
+    private JPAQuery<TaskView> selectTaskViews() {
+        return queryFactory.select(Projections.constructor(TaskView.class,
+                        TASK.id, TASK.name, TASK.description, TASK.createdAt,
+                        TASK_STATUS.id, TASK_STATUS.name,
+                        AUTHOR.id, AUTHOR.email, AUTHOR.firstName, AUTHOR.lastName,
+                        EXECUTOR.id, EXECUTOR.email, EXECUTOR.firstName, EXECUTOR.lastName,
+                        TASK.version, TASK.updatedAt,
+                        AUTHOR.version, AUTHOR.updatedAt,
+                        EXECUTOR.version, EXECUTOR.updatedAt))
+                .from(TASK)
+                .leftJoin(TASK.taskStatus, TASK_STATUS)
+                .leftJoin(TASK.author, AUTHOR)
+                .leftJoin(TASK.executor, EXECUTOR);
+    }
+}
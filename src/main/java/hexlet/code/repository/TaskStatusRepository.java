@@ -2,9 +2,15 @@ package hexlet.code.repository;
 
 import hexlet.code.entity.TaskStatus;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 
+import java.util.Collection;
 import java.util.Optional;
+import java.util.Set;
 
 public interface TaskStatusRepository extends JpaRepository<TaskStatus, Long> {
     Optional<TaskStatus> findByName(String name);
+
+    @Query("SELECT s.id FROM TaskStatus s WHERE s.id IN :ids")
+    Set<Long> findIdsByIdIn(Collection<Long> ids);
 }
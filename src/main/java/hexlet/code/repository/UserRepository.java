@@ -1,10 +1,22 @@
 package hexlet.code.repository;
 
 import hexlet.code.entity.User;
+import hexlet.code.repository.projection.UserView;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByEmail(String email);
+    List<UserView> findAllProjectedBy();
+
+    @Query("SELECT u.id FROM User u WHERE u.email = :email")
+    Optional<Long> findIdByEmail(String email);
+
+    @Query("SELECT u.id FROM User u WHERE u.id IN :ids")
+    Set<Long> findIdsByIdIn(Collection<Long> ids);
 }
@@ -0,0 +1,40 @@
+package hexlet.code.repository;
+
+import hexlet.code.entity.WebhookDelivery;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+
+public interface WebhookDeliveryRepository extends JpaRepository<WebhookDelivery, Long> {
+
+    // Lock timeout -2 is SKIP LOCKED: pollers of several nodes claim disjoint rows instead of waiting for each other
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("SELECT d FROM WebhookDelivery d WHERE d.parkedAt IS NULL AND d.nextAttemptAt <= :now "
+            + "AND d.webhook.id NOT IN :excludedWebhookIds ORDER BY d.id")
+    List<WebhookDelivery> findDue(Date now, Collection<Long> excludedWebhookIds, Pageable pageable);
+
+    @Modifying
+    @Query("UPDATE WebhookDelivery d SET d.nextAttemptAt = :nextAttemptAt WHERE d.id IN :ids")
+    int postpone(Collection<Long> ids, Date nextAttemptAt);
+
+    @Modifying
+    @Query("UPDATE WebhookDelivery d SET d.attempts = d.attempts + 1, d.nextAttemptAt = :nextAttemptAt, "
+            + "d.lastError = :error WHERE d.id IN :ids")
+    int recordFailure(Collection<Long> ids, Date nextAttemptAt, String error);
+
+    // Parks the rows that have had at least that many attempts, returns their number
+    @Modifying
+    @Query("UPDATE WebhookDelivery d SET d.parkedAt = :now, d.lastError = :error "
+            + "WHERE d.id IN :ids AND d.attempts >= :maxAttempts")
+    int park(Collection<Long> ids, Date now, String error, int maxAttempts);
+}
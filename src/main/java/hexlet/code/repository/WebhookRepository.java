@@ -0,0 +1,19 @@
+package hexlet.code.repository;
+
+import hexlet.code.entity.User;
+import hexlet.code.entity.Webhook;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+public interface WebhookRepository extends JpaRepository<Webhook, Long> {
+    List<Webhook> findAllByEventTypeIn(Collection<String> eventTypes);
+
+    List<Webhook> findAllByOwner(User owner);
+
+    @Query("SELECT w.owner.id FROM Webhook w WHERE w.id = :id")
+    Optional<Long> findOwnerIdById(Long id);
+}
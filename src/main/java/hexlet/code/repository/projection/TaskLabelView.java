@@ -0,0 +1,4 @@
+package hexlet.code.repository.projection;
+
+public record TaskLabelView(Long taskId, Long labelId, String labelName) {
+}
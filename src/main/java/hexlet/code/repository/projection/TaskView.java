@@ -0,0 +1,25 @@
+package hexlet.code.repository.projection;
+
+import java.util.Date;
+
+public record TaskView(Long id,
+                       String name,
+                       String description,
+                       Date createdAt,
+                       Long taskStatusId,
+                       String taskStatusName,
+                       Long authorId,
+                       String authorEmail,
+                       String authorFirstName,
+                       String authorLastName,
+                       Long executorId,
+                       String executorEmail,
+                       String executorFirstName,
+                       String executorLastName,
+                       Long version,
+                       Date updatedAt,
+                       Long authorVersion,
+                       Date authorUpdatedAt,
+                       Long executorVersion,
+                       Date executorUpdatedAt) {
+}
@@ -0,0 +1,13 @@
+package hexlet.code.repository.projection;
+
+import hexlet.code.entity.Versioned;
+
+import java.util.Date;
+
+public interface UserView extends Versioned {
+    Long getId();
+    String getEmail();
+    String getFirstName();
+    String getLastName();
+    Date getCreatedAt();
+}
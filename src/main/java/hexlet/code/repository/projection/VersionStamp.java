@@ -0,0 +1,31 @@
+package hexlet.code.repository.projection;
+
+import hexlet.code.entity.Versioned;
+
+import java.util.Collection;
+import java.util.Date;
+import java.util.Objects;
+
+/**
+ * Version of rows a list is read from. A list of a whole table is versioned by its count and sum of versions:
+ * updates raise the sum, inserts and deletes change the count. A page is versioned by ids and versions of its rows.
+ */
+public record VersionStamp(String version, Date lastModified) {
+
+    public static VersionStamp of(final Collection<? extends Versioned> entities) {
+        final long versionSum = entities.stream()
+                .map(Versioned::getVersion)
+                .filter(Objects::nonNull)
+                .mapToLong(Long::longValue)
+                .sum();
+        return new VersionStamp(entities.size() + "." + versionSum, lastModified(entities));
+    }
+
+    private static Date lastModified(final Collection<? extends Versioned> entities) {
+        return entities.stream()
+                .map(Versioned::getUpdatedAt)
+                .filter(Objects::nonNull)
+                .max(Date::compareTo)
+                .orElse(null);
+    }
+}
@@ -1,14 +1,18 @@
 package hexlet.code.service;
 
 import hexlet.code.dto.LabelDto;
+import hexlet.code.dto.LabelResponseDto;
 import hexlet.code.entity.Label;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Set;
 
 public interface LabelService {
     Label createNewLabel(LabelDto labelDto);
-    Label getLabelById(long id);
-    List<Label> getAllLabels();
+    LabelResponseDto getLabelById(long id);
+    Set<Label> getLabelReferencesByIds(Collection<Long> ids);
+    List<LabelResponseDto> getAllLabels();
     Label updateLabelById(long id, LabelDto labelDto);
     void deleteLabelById(long id);
 }
@@ -0,0 +1,13 @@
+package hexlet.code.service;
+
+import hexlet.code.event.TaskEventFilter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.Map;
+
+public interface TaskEventService {
+    /**
+     * @param claims claims of the access token of the request, the stream ends when the token expires or is revoked
+     */
+    SseEmitter subscribe(TaskEventFilter filter, Map<String, Object> claims);
+}
@@ -0,0 +1,25 @@
+package hexlet.code.service;
+
+import com.querydsl.core.types.Predicate;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+import static org.springframework.http.MediaType.APPLICATION_NDJSON;
+
+public interface TaskExportService {
+    void exportTasks(Predicate predicate, Format format, OutputStream outputStream) throws IOException;
+
+    @Getter
+    @RequiredArgsConstructor
+    enum Format {
+        NDJSON(APPLICATION_NDJSON, "ndjson"),
+        CSV(new MediaType("text", "csv"), "csv");
+
+        private final MediaType mediaType;
+        private final String extension;
+    }
+}
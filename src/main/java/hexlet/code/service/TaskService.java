@@ -2,13 +2,19 @@ package hexlet.code.service;
 
 import com.querydsl.core.types.Predicate;
 import hexlet.code.dto.TaskDto;
+import hexlet.code.dto.TaskOperationDto;
+import hexlet.code.dto.TaskOperationResultDto;
+import hexlet.code.dto.TaskPage;
+import hexlet.code.dto.TaskPatchDto;
 import hexlet.code.entity.Task;
+import java.util.List;
 
 public interface TaskService {
     Task createNewTask(TaskDto taskDto);
     Task getTaskById(long id);
-    Iterable<Task> getAllTasks();
-    Iterable<Task> getAllTasks(Predicate predicate);
+    TaskPage getTasksPage(Predicate predicate, String cursor, Integer size);
     Task updateTask(long id, TaskDto taskDto);
+    Task patchTask(long id, TaskPatchDto taskPatchDto);
     void deleteTaskById(long id);
+    List<TaskOperationResultDto> processBatch(List<TaskOperationDto> operations);
 }
@@ -1,14 +1,19 @@
 package hexlet.code.service;
 
 import hexlet.code.dto.TaskStatusDto;
+import hexlet.code.dto.TaskStatusResponseDto;
 import hexlet.code.entity.TaskStatus;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Set;
 
 public interface TaskStatusService {
     TaskStatus createNewTaskStatus(TaskStatusDto taskStatusDto);
-    TaskStatus getTaskStatusById(long id);
-    List<TaskStatus> getAllTaskStatuses();
+    TaskStatusResponseDto getTaskStatusById(long id);
+    TaskStatus getTaskStatusReferenceById(long id);
+    Set<Long> getExistingTaskStatusIds(Collection<Long> ids);
+    List<TaskStatusResponseDto> getAllTaskStatuses();
     TaskStatus updateTaskStatusById(long id, TaskStatusDto taskStatusDto);
     void deleteTaskStatusById(long id);
 }
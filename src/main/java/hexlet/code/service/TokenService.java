@@ -0,0 +1,12 @@
+package hexlet.code.service;
+
+import hexlet.code.dto.TokenPair;
+
+import java.util.Map;
+
+public interface TokenService {
+    TokenPair createTokens(long userId, String email);
+    TokenPair refreshTokens(String refreshToken);
+    void revokeTokens(Map<String, Object> accessTokenClaims, String refreshToken);
+    void revokeAllUserTokens(long userId);
+}
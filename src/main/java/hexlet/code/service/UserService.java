@@ -2,13 +2,18 @@ package hexlet.code.service;
 
 import hexlet.code.dto.UserDto;
 import hexlet.code.entity.User;
+import hexlet.code.repository.projection.UserView;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Set;
 
 public interface UserService {
     User createNewUser(UserDto userDto);
     User getUserById(long id);
-    List<User> getAllUsers();
+    User getUserReferenceById(long id);
+    Set<Long> getExistingUserIds(Collection<Long> ids);
+    List<UserView> getAllUsers();
     User updateUserById(long id, UserDto userDto);
     void deleteUserById(long id);
     String getCurrentUserName();
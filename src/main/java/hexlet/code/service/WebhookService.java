@@ -0,0 +1,13 @@
+package hexlet.code.service;
+
+import hexlet.code.dto.WebhookDto;
+import hexlet.code.entity.Webhook;
+
+import java.util.List;
+
+public interface WebhookService {
+    Webhook createNewWebhook(WebhookDto webhookDto);
+    Webhook getWebhookById(long id);
+    List<Webhook> getAllWebhooks();
+    void deleteWebhookById(long id);
+}
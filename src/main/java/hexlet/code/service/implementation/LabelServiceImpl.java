@@ -1,49 +1,102 @@
 package hexlet.code.service.impl;
 
 import hexlet.code.dto.LabelDto;
+import hexlet.code.dto.LabelResponseDto;
 import hexlet.code.entity.Label;
+import hexlet.code.event.EntityChangedEvent;
+import hexlet.code.exception.ReferencedEntityNotFoundException;
 import hexlet.code.repository.LabelRepository;
 import hexlet.code.service.LabelService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
+import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
 import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static hexlet.code.config.CacheConfiguration.ALL_KEY;
+import static hexlet.code.config.CacheConfiguration.LABELS_CACHE;
 
 @Service
 @RequiredArgsConstructor
 public class LabelServiceImpl implements LabelService {
 
     private final LabelRepository labelRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final CacheManager cacheManager;
 
     @Override
     public Label createNewLabel(LabelDto labelDto) {
         final Label label = new Label();
         label.setName(labelDto.getName());
-        return labelRepository.save(label);
+        final Label savedLabel = labelRepository.save(label);
+        eventPublisher.publishEvent(new EntityChangedEvent(Label.class, savedLabel.getId()));
+        return savedLabel;
     }
 
     @Override
-    public Label getLabelById(long id) {
+    @Cacheable(cacheNames = LABELS_CACHE)
+    public LabelResponseDto getLabelById(long id) {
         return labelRepository.findById(id)
+                .map(LabelResponseDto::from)
                 .orElseThrow(NoSuchElementException::new);
     }
 
+    // Task writes check the ids against the same cache as getLabelById, only the missing ones are read in one query.
+    // Labels are attached as references, the task only needs their ids
+    @Override
+    public Set<Label> getLabelReferencesByIds(Collection<Long> ids) {
+        final Cache cache = cacheManager.getCache(LABELS_CACHE);
+        final Set<Long> missingIds = new HashSet<>();
+        for (Long id : ids) {
+            if (cache.get(id, LabelResponseDto.class) == null) {
+                missingIds.add(id);
+            }
+        }
+
+        if (!missingIds.isEmpty()) {
+            for (Label label : labelRepository.findAllById(missingIds)) {
+                cache.put(label.getId(), LabelResponseDto.from(label));
+                missingIds.remove(label.getId());
+            }
+        }
+        if (!missingIds.isEmpty()) {
+            throw new ReferencedEntityNotFoundException(Label.class.getSimpleName(), missingIds);
+        }
+        return ids.stream()
+                .map(labelRepository::getReferenceById)
+                .collect(Collectors.toSet());
+    }
+
     @Override
-    public List<Label> getAllLabels() {
-        return labelRepository.findAll();
+    @Cacheable(cacheNames = LABELS_CACHE, key = "'" + ALL_KEY + "'")
+    public List<LabelResponseDto> getAllLabels() {
+        return labelRepository.findAll().stream()
+                .map(LabelResponseDto::from)
+                .toList();
     }
 
     @Override
     public Label updateLabelById(long id, LabelDto labelDto) {
-        final Label labelToUpdate = getLabelById(id);
+        final Label labelToUpdate = labelRepository.findById(id)
+                .orElseThrow(NoSuchElementException::new);
         labelToUpdate.setName(labelDto.getName());
-        return labelRepository.save(labelToUpdate);
+        final Label updatedLabel = labelRepository.save(labelToUpdate);
+        eventPublisher.publishEvent(new EntityChangedEvent(Label.class, id));
+        return updatedLabel;
     }
 
     @Override
     public void deleteLabelById(long id) {
         getLabelById(id);
         labelRepository.deleteById(id);
+        eventPublisher.publishEvent(new EntityChangedEvent(Label.class, id));
     }
 }
@@ -0,0 +1,263 @@
+package hexlet.code.service.impl;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import hexlet.code.component.TokenDenylist;
+import hexlet.code.dto.TaskResponseDto;
+import hexlet.code.event.TaskChangedEvent;
+import hexlet.code.event.TaskEventFilter;
+import hexlet.code.exception.SubscriberLimitExceededException;
+import hexlet.code.repository.TaskRepository;
+import hexlet.code.service.TaskEventService;
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter.SseEventBuilder;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static hexlet.code.event.TaskChangedEvent.Type.CREATED;
+import static hexlet.code.event.TaskChangedEvent.Type.DELETED;
+
+/**
+ * Pushes task changes to subscribers as server-sent events. An open stream is an async request, so idle
+ * subscribers hold a connection but no thread. Events are dispatched by a single thread in commit order.
+ * <p>
+ * The changed task is read once and every filter is checked against it in memory. Subscribers whose filter does
+ * not match an updated task get {@code deleted}, so that the task leaves their list if it was there. Deletes are
+ * sent to every subscriber.
+ * <p>
+ * Every subscriber has a bounded queue, written to by a pool of senders, so a slow client holds one sender and
+ * delays nobody else. A subscriber whose queue is full is completed: the client reconnects and reloads its list.
+ * A stream ends when the access token it was opened with expires or is revoked, the client reconnects with
+ * a fresh token.
+ */
+@Slf4j
+@Service
+public class TaskEventServiceImpl implements TaskEventService, DisposableBean {
+
+    public static final String EXECUTOR_NAME = "task.events";
+    public static final String SENDERS_NAME = "task.events.senders";
+    public static final String SUBSCRIBERS_METRIC_NAME = "task.events.subscribers";
+    public static final String CLOSED_METRIC_NAME = "task.events.subscribers.closed";
+
+    private final TaskRepository taskRepository;
+    private final ObjectMapper objectMapper;
+    private final TokenDenylist tokenDenylist;
+    private final long timeoutMillis;
+    private final ThreadPoolExecutor executor;
+    private final ThreadPoolExecutor senders;
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final Counter slowCounter;
+    private final Counter unauthorizedCounter;
+
+    @Value("${tasks.events.max-subscribers:5000}")
+    private int maxSubscribers;
+
+    @Value("${tasks.events.subscriber-queue-capacity:100}")
+    private int subscriberQueueCapacity;
+
+    public TaskEventServiceImpl(@Value("${tasks.events.timeout:30m}") final Duration timeout,
+                                @Value("${tasks.events.queue-capacity:10000}") final int queueCapacity,
+                                @Value("${tasks.events.senders:4}") final int senderThreads,
+                                final TaskRepository taskRepository,
+                                final ObjectMapper objectMapper,
+                                final TokenDenylist tokenDenylist,
+                                final MeterRegistry meterRegistry) {
+        this.taskRepository = taskRepository;
+        this.objectMapper = objectMapper;
+        this.tokenDenylist = tokenDenylist;
+        this.timeoutMillis = timeout.toMillis();
+        this.executor = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    final Thread thread = new Thread(runnable, EXECUTOR_NAME);
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        final AtomicInteger senderNumber = new AtomicInteger();
+        // Its queue holds at most one drain per subscriber
+        this.senders = new ThreadPoolExecutor(senderThreads, senderThreads, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(),
+                runnable -> {
+                    final Thread thread = new Thread(runnable, SENDERS_NAME + "-" + senderNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        ExecutorServiceMetrics.monitor(meterRegistry, executor, EXECUTOR_NAME, List.of());
+        ExecutorServiceMetrics.monitor(meterRegistry, senders, SENDERS_NAME, List.of());
+        meterRegistry.gaugeCollectionSize(SUBSCRIBERS_METRIC_NAME, List.of(), subscribers);
+        this.slowCounter = closedCounter(meterRegistry, "slow");
+        this.unauthorizedCounter = closedCounter(meterRegistry, "unauthorized");
+    }
+
+    @Override
+    public SseEmitter subscribe(final TaskEventFilter filter, final Map<String, Object> claims) {
+        if (subscribers.size() >= maxSubscribers) {
+            throw new SubscriberLimitExceededException("Too many task event subscribers");
+        }
+        // The stream is not kept open past the expiration of its token
+        final long expiresAt = claims.get(Claims.EXPIRATION) instanceof Number expiration
+                ? TimeUnit.SECONDS.toMillis(expiration.longValue())
+                : Long.MAX_VALUE;
+        final long timeout = Math.max(1, Math.min(timeoutMillis, expiresAt - System.currentTimeMillis()));
+        final SseEmitter emitter = new SseEmitter(timeout);
+        final Subscriber subscriber = new Subscriber(emitter, filter, claims, expiresAt,
+                new ArrayBlockingQueue<>(subscriberQueueCapacity));
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onError(e -> subscribers.remove(subscriber));
+        emitter.onTimeout(emitter::complete);
+        subscribers.add(subscriber);
+        return emitter;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTaskChanged(final TaskChangedEvent event) {
+        if (!subscribers.isEmpty()) {
+            execute(() -> broadcast(event));
+        }
+    }
+
+    // Comments are ignored by clients, but keep proxies from closing idle streams, detect closed ones and end
+    // the ones whose token is revoked
+    @Scheduled(fixedDelayString = "${tasks.events.heartbeat-interval-ms:15000}")
+    public void sendHeartbeats() {
+        if (!subscribers.isEmpty()) {
+            execute(() -> subscribers.forEach(subscriber -> offer(subscriber, SseEmitter.event().comment(""))));
+        }
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+        senders.shutdownNow();
+        subscribers.forEach(subscriber -> subscriber.emitter().complete());
+    }
+
+    private void execute(final Runnable task) {
+        try {
+            executor.execute(task);
+        } catch (RejectedExecutionException e) {
+            log.warn("Task event queue is full, event is dropped");
+        }
+    }
+
+    private void broadcast(final TaskChangedEvent event) {
+        final TaskResponseDto task = event.type() == DELETED ? null : taskRepository.findById(event.id())
+                .map(TaskResponseDto::from)
+                .orElse(null);
+        final String taskJson = task == null ? null : toJson(task);
+        final String deleted = toJson(Map.of("id", event.id()));
+        final String eventName = event.type().name().toLowerCase(Locale.ROOT);
+        final String deletedName = DELETED.name().toLowerCase(Locale.ROOT);
+
+        subscribers.forEach(subscriber -> {
+            if (task != null && subscriber.filter().matches(task)) {
+                offer(subscriber, SseEmitter.event().name(eventName).data(taskJson));
+            } else if (event.type() != CREATED) {
+                offer(subscriber, SseEmitter.event().name(deletedName).data(deleted));
+            }
+        });
+    }
+
+    private void offer(final Subscriber subscriber, final SseEventBuilder event) {
+        if (System.currentTimeMillis() >= subscriber.expiresAt() || tokenDenylist.isRevoked(subscriber.claims())) {
+            close(subscriber, unauthorizedCounter);
+            return;
+        }
+        if (!subscriber.queue().offer(event)) {
+            log.debug("Task event subscriber can't keep up, its stream is completed");
+            close(subscriber, slowCounter);
+            return;
+        }
+        if (subscriber.sending().compareAndSet(false, true)) {
+            try {
+                senders.execute(() -> drain(subscriber));
+            } catch (RejectedExecutionException e) {
+                subscriber.sending().set(false);
+            }
+        }
+    }
+
+    // Sends until the queue is empty. The flag is cleared before the last check, so an event offered meanwhile
+    // either is seen here or starts a new drain
+    private void drain(final Subscriber subscriber) {
+        do {
+            SseEventBuilder event;
+            while ((event = subscriber.queue().poll()) != null) {
+                if (!send(subscriber, event)) {
+                    return;
+                }
+            }
+            subscriber.sending().set(false);
+        } while (!subscriber.queue().isEmpty() && subscriber.sending().compareAndSet(false, true));
+    }
+
+    private boolean send(final Subscriber subscriber, final SseEventBuilder event) {
+        try {
+            subscriber.emitter().send(event);
+            return true;
+        } catch (IOException | IllegalStateException e) {
+            // Client is gone or the stream is already completed
+            subscribers.remove(subscriber);
+            subscriber.emitter().completeWithError(e);
+            return false;
+        }
+    }
+
+    private void close(final Subscriber subscriber, final Counter counter) {
+        if (subscribers.remove(subscriber)) {
+            counter.increment();
+            subscriber.queue().clear();
+            subscriber.emitter().complete();
+        }
+    }
+
+    // Serialized once for all subscribers
+    private String toJson(final Object value) {
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static Counter closedCounter(final MeterRegistry meterRegistry, final String reason) {
+        return Counter.builder(CLOSED_METRIC_NAME)
+                .description("Task event streams completed by the server")
+                .tag("reason", reason)
+                .register(meterRegistry);
+    }
+
+    private record Subscriber(SseEmitter emitter, TaskEventFilter filter, Map<String, Object> claims,
+                              long expiresAt, Queue<SseEventBuilder> queue, AtomicBoolean sending) {
+
+        Subscriber(final SseEmitter emitter, final TaskEventFilter filter, final Map<String, Object> claims,
+                   final long expiresAt, final Queue<SseEventBuilder> queue) {
+            this(emitter, filter, claims, expiresAt, queue, new AtomicBoolean());
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package hexlet.code.service.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.querydsl.core.types.Predicate;
+import hexlet.code.dto.TaskResponseDto;
+import hexlet.code.dto.TaskResponseDto.LabelRef;
+import hexlet.code.dto.TaskResponseDto.UserRef;
+import hexlet.code.repository.TaskRepository;
+import hexlet.code.repository.projection.TaskLabelView;
+import hexlet.code.repository.projection.TaskView;
+import hexlet.code.service.TaskExportService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+@Service
+@RequiredArgsConstructor
+public class TaskExportServiceImpl implements TaskExportService {
+
+    private static final String CSV_HEADER = "id,name,description,taskStatus,author,executor,labels,createdAt";
+    private static final String CSV_SEPARATOR = ",";
+    private static final String CSV_LIST_SEPARATOR = ";";
+
+    private final TaskRepository taskRepository;
+    private final ObjectMapper objectMapper;
+
+    @Value("${tasks.export.fetch-size:500}")
+    private int fetchSize;
+
+    // Rows are read through a forward-only cursor and written chunk by chunk,
+    // so only one chunk of tasks is held in memory whatever the size of the export
+    @Override
+    @Transactional(readOnly = true)
+    public void exportTasks(Predicate predicate, Format format, OutputStream outputStream) throws IOException {
+        final Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+        if (format == Format.CSV) {
+            writer.write(CSV_HEADER);
+            writer.write('\n');
+        }
+
+        try (Stream<TaskView> rows = taskRepository.streamAll(predicate, fetchSize)) {
+            final Iterator<TaskView> iterator = rows.iterator();
+            final List<TaskView> chunk = new ArrayList<>(fetchSize);
+            while (iterator.hasNext()) {
+                chunk.add(iterator.next());
+                if (chunk.size() == fetchSize || !iterator.hasNext()) {
+                    for (TaskResponseDto task : toTasks(chunk)) {
+                        writer.write(format == Format.CSV ? toCsv(task) : objectMapper.writeValueAsString(task));
+                        writer.write('\n');
+                    }
+                    writer.flush();
+                    chunk.clear();
+                }
+            }
+        }
+        writer.flush();
+    }
+
+    private List<TaskResponseDto> toTasks(final List<TaskView> chunk) {
+        final Map<Long, Set<LabelRef>> labelsByTask = taskRepository.findLabels(chunk.stream()
+                        .map(TaskView::id)
+                        .toList()).stream()
+                .collect(Collectors.groupingBy(TaskLabelView::taskId,
+                        Collectors.mapping(label -> new LabelRef(label.labelId(), label.labelName()),
+                                Collectors.toSet())));
+        return chunk.stream()
+                .map(task -> TaskResponseDto.from(task, labelsByTask.getOrDefault(task.id(), Set.of())))
+                .toList();
+    }
+
+    private static String toCsv(final TaskResponseDto task) {
+        return Stream.of(
+                        String.valueOf(task.getId()),
+                        task.getName(),
+                        task.getDescription(),
+                        task.getTaskStatus() == null ? null : task.getTaskStatus().getName(),
+                        Optional.ofNullable(task.getAuthor()).map(UserRef::getEmail).orElse(null),
+                        Optional.ofNullable(task.getExecutor()).map(UserRef::getEmail).orElse(null),
+                        task.getLabels().stream()
+                                .map(LabelRef::getName)
+                                .sorted()
+                                .collect(Collectors.joining(CSV_LIST_SEPARATOR)),
+                        task.getCreatedAt() == null ? null : task.getCreatedAt().toInstant().toString())
+                .map(TaskExportServiceImpl::escapeCsv)
+                .collect(Collectors.joining(CSV_SEPARATOR));
+    }
+
+    private static String escapeCsv(final String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.contains(CSV_SEPARATOR) || value.contains("\"") || value.contains("\n") || value.contains("\r")) {
+            return "\"" + value.replace("\"", "\"\"") + "\"";
+        }
+        return value;
+    }
+}
@@ -1,37 +1,88 @@
 package hexlet.code.service.impl;
 
+import com.querydsl.core.types.ExpressionUtils;
 import com.querydsl.core.types.Predicate;
+import hexlet.code.component.OwnershipChecker;
 import hexlet.code.dto.TaskDto;
+import hexlet.code.dto.TaskOperationDto;
+import hexlet.code.dto.TaskOperationResultDto;
+import hexlet.code.dto.TaskPage;
+import hexlet.code.dto.TaskPatchDto;
+import hexlet.code.dto.TaskResponseDto;
+import hexlet.code.dto.TaskResponseDto.LabelRef;
 import hexlet.code.entity.Label;
+import hexlet.code.entity.QTask;
 import hexlet.code.entity.Task;
 import hexlet.code.entity.TaskStatus;
 import hexlet.code.entity.User;
+import hexlet.code.event.TaskChangedEvent;
+import hexlet.code.exception.InvalidCursorException;
+import hexlet.code.exception.ReferencedEntityNotFoundException;
+import hexlet.code.exception.TaskBatchFailedException;
 import hexlet.code.repository.TaskRepository;
+import hexlet.code.repository.projection.TaskLabelView;
+import hexlet.code.repository.projection.TaskView;
+import hexlet.code.repository.projection.VersionStamp;
 import hexlet.code.service.LabelService;
 import hexlet.code.service.TaskService;
 import hexlet.code.service.TaskStatusService;
 import hexlet.code.service.UserService;
+import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.security.access.AccessDeniedException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.NoSuchElementException;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.springframework.http.HttpStatus.CREATED;
+import static org.springframework.http.HttpStatus.FAILED_DEPENDENCY;
+import static org.springframework.http.HttpStatus.FORBIDDEN;
+import static org.springframework.http.HttpStatus.NOT_FOUND;
+import static org.springframework.http.HttpStatus.OK;
+import static org.springframework.http.HttpStatus.UNPROCESSABLE_ENTITY;
 
 @Service
+@Transactional
 @RequiredArgsConstructor
 public class TaskServiceImpl implements TaskService {
 
+    private static final QTask TASK = QTask.task;
+    private static final String CURSOR_SEPARATOR = ":";
+
     private final TaskRepository taskRepository;
 
     private final UserService userService;
     private final TaskStatusService taskStatusService;
     private final LabelService labelService;
+    private final OwnershipChecker ownershipChecker;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Value("${tasks.page.default-size:100}")
+    private int defaultPageSize;
+
+    @Value("${tasks.page.max-size:1000}")
+    private int maxPageSize;
 
     @Override
     public Task createNewTask(TaskDto taskDto) {
-        final Task task = createTaskFromDto(taskDto);
-        return taskRepository.save(task);
+        final Task task = taskRepository.save(createTaskFromDto(taskDto));
+        eventPublisher.publishEvent(new TaskChangedEvent(TaskChangedEvent.Type.CREATED, task.getId()));
+        return task;
     }
 
     @Override
@@ -41,42 +92,228 @@ public class TaskServiceImpl implements TaskService {
     }
 
     @Override
-    public Iterable<Task> getAllTasks() {
-        return taskRepository.findAll();
+    public TaskPage getTasksPage(Predicate predicate, String cursor, Integer size) {
+        // A request without size gets the default page, so no request reads the whole table
+        final int pageSize = Math.min(Optional.ofNullable(size).filter(s -> s > 0).orElse(defaultPageSize),
+                maxPageSize);
+        final Predicate afterCursor = Optional.ofNullable(cursor)
+                .map(this::decodeCursor)
+                .orElse(null);
+
+        // One extra row tells whether there is a next page without running a count query
+        final List<TaskView> rows = taskRepository.findPage(ExpressionUtils.allOf(predicate, afterCursor),
+                pageSize + 1, TASK.createdAt.asc(), TASK.id.asc());
+        final boolean hasNextPage = rows.size() > pageSize;
+        final List<TaskView> page = hasNextPage ? rows.subList(0, pageSize) : rows;
+
+        final String nextCursor = hasNextPage ? encodeCursor(page.get(pageSize - 1)) : null;
+        return new TaskPage(toResponses(page), nextCursor, getVersionStamps(page, nextCursor));
     }
 
-    @Override
-    public Iterable<Task> getAllTasks(Predicate predicate) {
-        return taskRepository.findAll(predicate);
+    private List<TaskResponseDto> toResponses(final List<TaskView> tasks) {
+        final Map<Long, Set<LabelRef>> labelsByTask = tasks.isEmpty() ? Map.of()
+                : taskRepository.findLabels(tasks.stream().map(TaskView::id).toList()).stream()
+                        .collect(Collectors.groupingBy(TaskLabelView::taskId,
+                                Collectors.mapping(label -> new LabelRef(label.labelId(), label.labelName()),
+                                        Collectors.toSet())));
+        return tasks.stream()
+                .map(task -> TaskResponseDto.from(task, labelsByTask.getOrDefault(task.id(), Set.of())))
+                .toList();
+    }
+
+    // Tasks are listed with names of their statuses, users and labels. Users are versioned by the rows of the page,
+    // statuses and labels by their cached lists. Changing labels of a task raises the task version.
+    // The next cursor is a part of the response, a page gets one when a task is added after it
+    private List<VersionStamp> getVersionStamps(final List<TaskView> page, final String nextCursor) {
+        final String pageVersion = page.stream()
+                .map(task -> task.id() + "." + task.version() + "." + task.authorVersion() + "."
+                        + task.executorVersion())
+                .collect(Collectors.joining(",", "", ";" + nextCursor));
+        final Date pageLastModified = page.stream()
+                .flatMap(task -> Stream.of(task.updatedAt(), task.authorUpdatedAt(), task.executorUpdatedAt()))
+                .filter(Objects::nonNull)
+                .max(Date::compareTo)
+                .orElse(null);
+        return List.of(
+                new VersionStamp(pageVersion, pageLastModified),
+                VersionStamp.of(taskStatusService.getAllTaskStatuses()),
+                VersionStamp.of(labelService.getAllLabels()));
     }
 
     @Override
     public Task updateTask(long id, TaskDto taskDto) {
-        final Task taskToUpdate = createTaskFromDto(taskDto);
-        taskToUpdate.setId(id);
-        taskToUpdate.setAuthor(getTaskById(id).getAuthor());
-        taskToUpdate.setCreatedAt(getTaskById(id).getCreatedAt());
-        return taskRepository.save(taskToUpdate);
+        final Task task = getTaskById(id);
+        task.setName(taskDto.getName());
+        task.setDescription(taskDto.getDescription());
+        task.setTaskStatus(taskStatusService.getTaskStatusReferenceById(taskDto.getTaskStatusId()));
+        task.setExecutor(Optional.ofNullable(taskDto.getExecutorId())
+                .map(userService::getUserReferenceById)
+                .orElse(null));
+        updateLabels(task, Optional.ofNullable(taskDto.getLabelIds()).orElse(Set.of()));
+        eventPublisher.publishEvent(new TaskChangedEvent(TaskChangedEvent.Type.UPDATED, id));
+        return task;
+    }
+
+    @Override
+    public Task patchTask(long id, TaskPatchDto taskPatchDto) {
+        final Task task = getTaskById(id);
+        Optional.ofNullable(taskPatchDto.getName())
+                .ifPresent(task::setName);
+        Optional.ofNullable(taskPatchDto.getDescription())
+                .ifPresent(task::setDescription);
+        Optional.ofNullable(taskPatchDto.getTaskStatusId())
+                .map(taskStatusService::getTaskStatusReferenceById)
+                .ifPresent(task::setTaskStatus);
+        Optional.ofNullable(taskPatchDto.getExecutorId())
+                .map(userService::getUserReferenceById)
+                .ifPresent(task::setExecutor);
+        Optional.ofNullable(taskPatchDto.getLabelIds())
+                .ifPresent(labelIds -> updateLabels(task, labelIds));
+        eventPublisher.publishEvent(new TaskChangedEvent(TaskChangedEvent.Type.UPDATED, id));
+        return task;
     }
 
     @Override
     public void deleteTaskById(long id) {
-        getTaskById(id);
-        taskRepository.deleteById(id);
+        // The author is checked before, a task deleted since then is reported by the row count
+        if (taskRepository.deleteWithoutLoadingById(id) == 0) {
+            throw new NoSuchElementException("Task with id " + id + " not found");
+        }
+        eventPublisher.publishEvent(new TaskChangedEvent(TaskChangedEvent.Type.DELETED, id));
+    }
+
+    @Override
+    public List<TaskOperationResultDto> processBatch(List<TaskOperationDto> operations) {
+        final BatchReferences references = findBatchReferences(operations);
+        final List<TaskOperationResultDto> results = new ArrayList<>(operations.size());
+        for (int index = 0; index < operations.size(); index++) {
+            results.add(processOperation(index, operations.get(index), references));
+        }
+
+        if (results.stream().anyMatch(TaskOperationResultDto::isFailed)) {
+            // Thrown exception rolls the whole batch back, operations that succeeded are reported as not applied
+            throw new TaskBatchFailedException(results.stream()
+                    .map(result -> result.isFailed() ? result : TaskOperationResultDto.builder()
+                            .index(result.getIndex())
+                            .type(result.getType())
+                            .status(FAILED_DEPENDENCY.value())
+                            .build())
+                    .toList());
+        }
+        // Inserts and updates of the whole batch are sent here in JDBC batches
+        taskRepository.flush();
+        return results;
+    }
+
+    private TaskOperationResultDto processOperation(final int index, final TaskOperationDto operation,
+                                                    final BatchReferences references) {
+        final var result = TaskOperationResultDto.builder()
+                .index(index)
+                .type(operation.getType());
+        try {
+            switch (operation.getType()) {
+                case CREATE -> {
+                    final Task task = createNewTask(references.check(requireTask(operation)));
+                    result.status(CREATED.value()).id(task.getId()).task(TaskResponseDto.from(task));
+                }
+                case UPDATE -> {
+                    final Task task = updateTask(requireId(operation), references.check(requireTask(operation)));
+                    result.status(OK.value()).id(task.getId()).task(TaskResponseDto.from(task));
+                }
+                case DELETE -> {
+                    final long id = requireId(operation);
+                    if (!ownershipChecker.isTaskAuthor(id)) {
+                        throw new AccessDeniedException("Only author can delete the task");
+                    }
+                    deleteTaskById(id);
+                    result.status(OK.value()).id(id);
+                }
+                default -> throw new IllegalArgumentException("Unknown operation " + operation.getType());
+            }
+        } catch (NoSuchElementException e) {
+            result.status(NOT_FOUND.value()).error("Task with id " + operation.getId() + " not found");
+        } catch (AccessDeniedException e) {
+            result.status(FORBIDDEN.value()).error(e.getMessage());
+        } catch (IllegalArgumentException | ReferencedEntityNotFoundException | EntityNotFoundException e) {
+            result.status(UNPROCESSABLE_ENTITY.value()).error(e.getMessage());
+        }
+        return result.build();
+    }
+
+    // Statuses and executors are set as references, so one query per kind finds the missing ones for every item
+    // instead of a foreign key violation at flush failing the batch as a whole
+    private BatchReferences findBatchReferences(final List<TaskOperationDto> operations) {
+        final List<TaskDto> tasks = operations.stream()
+                .map(TaskOperationDto::getTask)
+                .filter(Objects::nonNull)
+                .toList();
+        final Set<Long> taskStatusIds = tasks.stream()
+                .map(TaskDto::getTaskStatusId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        final Set<Long> executorIds = tasks.stream()
+                .map(TaskDto::getExecutorId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        return new BatchReferences(taskStatusService.getExistingTaskStatusIds(taskStatusIds),
+                userService.getExistingUserIds(executorIds));
+    }
+
+    private static Long requireId(final TaskOperationDto operation) {
+        return Optional.ofNullable(operation.getId())
+                .orElseThrow(() -> new IllegalArgumentException("Task id is required for " + operation.getType()));
+    }
+
+    private static TaskDto requireTask(final TaskOperationDto operation) {
+        return Optional.ofNullable(operation.getTask())
+                .orElseThrow(() -> new IllegalArgumentException("Task is required for " + operation.getType()));
+    }
+
+    // Only the difference is applied, so Hibernate deletes and inserts just the changed task_label rows
+    private void updateLabels(final Task task, final Set<Long> labelIds) {
+        final Set<Label> labels = task.getLabels();
+        labels.removeIf(label -> !labelIds.contains(label.getId()));
+
+        final Set<Long> addedLabelIds = new HashSet<>(labelIds);
+        labels.forEach(label -> addedLabelIds.remove(label.getId()));
+        if (!addedLabelIds.isEmpty()) {
+            labels.addAll(labelService.getLabelReferencesByIds(addedLabelIds));
+        }
+    }
+
+    private String encodeCursor(final TaskView task) {
+        final String position = task.createdAt().getTime() + CURSOR_SEPARATOR + task.id();
+        return Base64.getUrlEncoder()
+                .withoutPadding()
+                .encodeToString(position.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private Predicate decodeCursor(final String cursor) {
+        try {
+            final String position = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            final String[] parts = position.split(CURSOR_SEPARATOR);
+            final Date createdAt = new Date(Long.parseLong(parts[0]));
+            final long id = Long.parseLong(parts[1]);
+            return TASK.createdAt.gt(createdAt)
+                    .or(TASK.createdAt.eq(createdAt).and(TASK.id.gt(id)));
+        } catch (IllegalArgumentException | ArrayIndexOutOfBoundsException e) {
+            throw new InvalidCursorException(cursor);
+        }
     }
 
     private Task createTaskFromDto(final TaskDto taskDto) {
+        // Referenced users and status are attached as proxies: only their ids are needed to write the task,
+        // a missing one is reported by the foreign key constraint
         final User author = userService.getCurrentUser();
         final User executor = Optional.ofNullable(taskDto.getExecutorId())
-                .flatMap(userId -> Optional.ofNullable(userService.getUserById(userId)))
+                .map(userService::getUserReferenceById)
                 .orElse(null);
         final TaskStatus taskStatus = Optional.ofNullable(taskDto.getTaskStatusId())
-                .flatMap(taskStatusId -> Optional.ofNullable(taskStatusService.getTaskStatusById(taskStatusId)))
+                .map(taskStatusService::getTaskStatusReferenceById)
                 .orElse(null);
         final Set<Label> labels = Optional.ofNullable(taskDto.getLabelIds())
-                .map(labelIds -> labelIds.stream()
-                        .map(labelService::getLabelById)
-                        .collect(Collectors.toSet()))
+                .filter(labelIds -> !labelIds.isEmpty())
+                .map(labelService::getLabelReferencesByIds)
                 .orElse(Set.of());
 
         return Task.builder()
@@ -88,4 +325,18 @@ public class TaskServiceImpl implements TaskService {
                 .description(taskDto.getDescription())
                 .build();
     }
+
+    private record BatchReferences(Set<Long> taskStatusIds, Set<Long> userIds) {
+
+        TaskDto check(final TaskDto task) {
+            if (task.getTaskStatusId() != null && !taskStatusIds.contains(task.getTaskStatusId())) {
+                throw new ReferencedEntityNotFoundException(TaskStatus.class.getSimpleName(),
+                        List.of(task.getTaskStatusId()));
+            }
+            if (task.getExecutorId() != null && !userIds.contains(task.getExecutorId())) {
+                throw new ReferencedEntityNotFoundException(User.class.getSimpleName(), List.of(task.getExecutorId()));
+            }
+            return task;
+        }
+    }
 }
@@ -1,49 +1,82 @@
 package hexlet.code.service.impl;
 
 import hexlet.code.dto.TaskStatusDto;
+import hexlet.code.dto.TaskStatusResponseDto;
 import hexlet.code.entity.TaskStatus;
+import hexlet.code.event.EntityChangedEvent;
 import hexlet.code.repository.TaskStatusRepository;
 import hexlet.code.service.TaskStatusService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.NoSuchElementException;
+import java.util.Set;
+
+import static hexlet.code.config.CacheConfiguration.ALL_KEY;
+import static hexlet.code.config.CacheConfiguration.TASK_STATUSES_CACHE;
 
 @Service
+@Transactional
 @RequiredArgsConstructor
 public class TaskStatusServiceImpl implements TaskStatusService {
 
     private final TaskStatusRepository taskStatusRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     public TaskStatus createNewTaskStatus(TaskStatusDto taskStatusDto) {
         final TaskStatus taskStatus = new TaskStatus();
         taskStatus.setName(taskStatusDto.getName());
-        return taskStatusRepository.save(taskStatus);
+        final TaskStatus savedTaskStatus = taskStatusRepository.save(taskStatus);
+        eventPublisher.publishEvent(new EntityChangedEvent(TaskStatus.class, savedTaskStatus.getId()));
+        return savedTaskStatus;
     }
 
     @Override
-    public TaskStatus getTaskStatusById(long id) {
+    @Cacheable(cacheNames = TASK_STATUSES_CACHE)
+    public TaskStatusResponseDto getTaskStatusById(long id) {
         return taskStatusRepository.findById(id)
+                .map(TaskStatusResponseDto::from)
                 .orElseThrow(NoSuchElementException::new);
     }
 
     @Override
-    public List<TaskStatus> getAllTaskStatuses() {
-        return taskStatusRepository.findAll();
+    public TaskStatus getTaskStatusReferenceById(long id) {
+        return taskStatusRepository.getReferenceById(id);
+    }
+
+    @Override
+    public Set<Long> getExistingTaskStatusIds(Collection<Long> ids) {
+        return ids.isEmpty() ? Set.of() : taskStatusRepository.findIdsByIdIn(ids);
+    }
+
+    @Override
+    @Cacheable(cacheNames = TASK_STATUSES_CACHE, key = "'" + ALL_KEY + "'")
+    public List<TaskStatusResponseDto> getAllTaskStatuses() {
+        return taskStatusRepository.findAll().stream()
+                .map(TaskStatusResponseDto::from)
+                .toList();
     }
 
     @Override
     public TaskStatus updateTaskStatusById(long id, TaskStatusDto taskStatusDto) {
-        final TaskStatus taskStatusToUpdate = getTaskStatusById(id);
+        final TaskStatus taskStatusToUpdate = taskStatusRepository.findById(id)
+                .orElseThrow(NoSuchElementException::new);
         taskStatusToUpdate.setName(taskStatusDto.getName());
-        return taskStatusRepository.save(taskStatusToUpdate);
+        final TaskStatus updatedTaskStatus = taskStatusRepository.save(taskStatusToUpdate);
+        eventPublisher.publishEvent(new EntityChangedEvent(TaskStatus.class, id));
+        return updatedTaskStatus;
     }
 
     @Override
     public void deleteTaskStatusById(long id) {
         getTaskStatusById(id);
         taskStatusRepository.deleteById(id);
+        eventPublisher.publishEvent(new EntityChangedEvent(TaskStatus.class, id));
     }
 }
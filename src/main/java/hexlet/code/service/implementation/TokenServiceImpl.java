@@ -0,0 +1,124 @@
+package hexlet.code.service.impl;
+
+import hexlet.code.component.JWTUtils;
+import hexlet.code.component.TokenDenylist;
+import hexlet.code.dto.TokenPair;
+import hexlet.code.entity.RevokedToken;
+import hexlet.code.exception.InvalidTokenException;
+import hexlet.code.repository.RevokedTokenRepository;
+import hexlet.code.service.TokenService;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Instant;
+import java.util.Date;
+import java.util.Map;
+import java.util.Optional;
+
+import static hexlet.code.component.JWTUtils.TokenType.REFRESH;
+import static hexlet.code.component.JWTUtils.USER_ID_CLAIM;
+import static org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter.SPRING_SECURITY_FORM_USERNAME_KEY;
+
+@Service
+@Transactional
+@RequiredArgsConstructor
+public class TokenServiceImpl implements TokenService {
+
+    private final JWTUtils jwtUtils;
+    private final TokenDenylist tokenDenylist;
+    private final RevokedTokenRepository revokedTokenRepository;
+
+    @Override
+    public TokenPair createTokens(final long userId, final String email) {
+        final Map<String, Object> attributes = Map.of(
+                SPRING_SECURITY_FORM_USERNAME_KEY, email,
+                USER_ID_CLAIM, userId
+        );
+        return new TokenPair(jwtUtils.createJWSToken(attributes), jwtUtils.createRefreshToken(attributes));
+    }
+
+    @Override
+    public TokenPair refreshTokens(final String refreshToken) {
+        final Map<String, Object> claims = readRefreshToken(refreshToken)
+                .orElseThrow(() -> new InvalidTokenException("Refresh token is invalid or expired"));
+        if (tokenDenylist.isRevoked(claims)) {
+            throw new InvalidTokenException("Refresh token is revoked");
+        }
+        // Every refresh token is used once, a stolen one stops working after the owner's next refresh.
+        // The jti is unique, so of concurrent refreshes, on this node or others, only the first one revokes it
+        try {
+            revoke(claims);
+        } catch (DataIntegrityViolationException e) {
+            throw new InvalidTokenException("Refresh token is revoked");
+        }
+        return createTokens(
+                ((Number) claims.get(USER_ID_CLAIM)).longValue(),
+                claims.get(SPRING_SECURITY_FORM_USERNAME_KEY).toString()
+        );
+    }
+
+    @Override
+    public void revokeTokens(final Map<String, Object> accessTokenClaims, final String refreshToken) {
+        revoke(accessTokenClaims);
+        // A rotated refresh token may still be sent on logout, it is revoked already
+        readRefreshToken(refreshToken)
+                .filter(claims -> !tokenDenylist.isRevoked(claims))
+                .ifPresent(this::revoke);
+    }
+
+    @Override
+    public void revokeAllUserTokens(final long userId) {
+        final Instant now = Instant.now();
+        // No token issued before now outlives the longest token lifetime
+        save(RevokedToken.builder()
+                .userId(userId)
+                .revokedBefore(Date.from(now))
+                .expiresAt(Date.from(now.plusSeconds(jwtUtils.getRefreshExpirationSec())))
+                .build());
+    }
+
+    private Optional<Map<String, Object>> readRefreshToken(final String refreshToken) {
+        if (refreshToken == null || refreshToken.isBlank()) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(jwtUtils.readJWSToken(refreshToken))
+                    .filter(claims -> JWTUtils.isTokenOfType(claims, REFRESH))
+                    .filter(claims -> claims.get(USER_ID_CLAIM) instanceof Number);
+        } catch (JwtException | IllegalArgumentException e) {
+            return Optional.empty();
+        }
+    }
+
+    private void revoke(final Map<String, Object> claims) {
+        if (claims.get(Claims.ID) == null || !(claims.get(Claims.EXPIRATION) instanceof Number expiration)) {
+            return;
+        }
+        save(RevokedToken.builder()
+                .tokenId(claims.get(Claims.ID).toString())
+                .expiresAt(Date.from(Instant.ofEpochSecond(expiration.longValue())))
+                .build());
+    }
+
+    // Flushed at once, so a duplicate jti fails here and not on commit. The denylist gets the revocation only
+    // after commit: a rolled back change, e.g. a user update failing on a taken email, leaves the tokens valid
+    private void save(final RevokedToken revokedToken) {
+        final RevokedToken saved = revokedTokenRepository.saveAndFlush(revokedToken);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            tokenDenylist.add(saved);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                tokenDenylist.add(saved);
+            }
+        });
+    }
+}
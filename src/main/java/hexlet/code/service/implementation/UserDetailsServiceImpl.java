@@ -1,18 +1,21 @@
 package hexlet.code.service.impl;
 
+import hexlet.code.config.security.AuthenticatedUserDetails;
 import hexlet.code.entity.User;
 import hexlet.code.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import static hexlet.code.config.security.SecurityConfig.DEFAULT_AUTHORITIES;
 
 @Service
 @RequiredArgsConstructor
-public class UserDetailsServiceImpl implements UserDetailsService {
+public class UserDetailsServiceImpl implements UserDetailsService, UserDetailsPasswordService {
 
     private final UserRepository userRepository;
 
@@ -23,8 +26,21 @@ public class UserDetailsServiceImpl implements UserDetailsService {
                 .orElseThrow(() -> new UsernameNotFoundException("Not found user with 'email': " + username));
     }
 
+    @Override
+    @Transactional
+    public UserDetails updatePassword(final UserDetails userDetails, final String newPassword) {
+        return userRepository.findByEmail(userDetails.getUsername())
+                .map(user -> {
+                    user.setPassword(newPassword);
+                    return buildSpringUser(user);
+                })
+                .orElseThrow(() -> new UsernameNotFoundException("Not found user with 'email': "
+                        + userDetails.getUsername()));
+    }
+
     private UserDetails buildSpringUser(final User user) {
-        return new org.springframework.security.core.userdetails.User(
+        return new AuthenticatedUserDetails(
+                user.getId(),
                 user.getEmail(),
                 user.getPassword(),
                 DEFAULT_AUTHORITIES
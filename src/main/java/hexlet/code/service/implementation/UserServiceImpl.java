@@ -1,8 +1,11 @@
 package hexlet.code.service.impl;
 
+import hexlet.code.config.security.AuthenticatedUser;
 import hexlet.code.dto.UserDto;
 import hexlet.code.entity.User;
 import hexlet.code.repository.UserRepository;
+import hexlet.code.repository.projection.UserView;
+import hexlet.code.service.TokenService;
 import hexlet.code.service.UserService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -10,8 +13,11 @@ import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.Set;
 
 @Service
 @Transactional
@@ -20,6 +26,7 @@ public class UserServiceImpl implements UserService {
 
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
+    private final TokenService tokenService;
 
     @Override
     public User createNewUser(final UserDto userDto) {
@@ -34,21 +41,39 @@ public class UserServiceImpl implements UserService {
     }
 
     @Override
-    public List<User> getAllUsers() {
-        return userRepository.findAll();
+    public User getUserReferenceById(long id) {
+        return userRepository.getReferenceById(id);
     }
 
+    @Override
+    public Set<Long> getExistingUserIds(Collection<Long> ids) {
+        return ids.isEmpty() ? Set.of() : userRepository.findIdsByIdIn(ids);
+    }
+
+    @Override
+    public List<UserView> getAllUsers() {
+        return userRepository.findAllProjectedBy();
+    }
+
+    // The loaded user is changed in place, so the update keeps its version and is checked against it
     @Override
     public User updateUserById(long id, UserDto userDto) {
-        final User userToUpdate = createUserFromDto(userDto);
-        userToUpdate.setId(id);
-        return userRepository.save(userToUpdate);
+        final User user = getUserById(id);
+        if (!passwordEncoder.matches(userDto.getPassword(), user.getPassword())) {
+            user.setPassword(passwordEncoder.encode(userDto.getPassword()));
+            tokenService.revokeAllUserTokens(id);
+        }
+        user.setFirstName(userDto.getFirstName());
+        user.setLastName(userDto.getLastName());
+        user.setEmail(userDto.getEmail());
+        return user;
     }
 
     @Override
     public void deleteUserById(long id) {
         getUserById(id);
         userRepository.deleteById(id);
+        tokenService.revokeAllUserTokens(id);
     }
 
     @Override
@@ -58,8 +83,18 @@ public class UserServiceImpl implements UserService {
 
     @Override
     public User getCurrentUser() {
-        return userRepository.findByEmail(getCurrentUserName())
-                .orElseThrow(NoSuchElementException::new);
+        // The id from the token is enough to reference the user without loading it
+        return getCurrentUserId()
+                .map(userRepository::getReferenceById)
+                .orElseGet(() -> userRepository.findByEmail(getCurrentUserName())
+                        .orElseThrow(NoSuchElementException::new));
+    }
+
+    private Optional<Long> getCurrentUserId() {
+        return Optional.ofNullable(SecurityContextHolder.getContext().getAuthentication().getPrincipal())
+                .filter(AuthenticatedUser.class::isInstance)
+                .map(AuthenticatedUser.class::cast)
+                .map(AuthenticatedUser::id);
     }
 
     private User createUserFromDto(final UserDto userDto) {
@@ -0,0 +1,46 @@
+package hexlet.code.service.impl;
+
+import hexlet.code.dto.WebhookDto;
+import hexlet.code.entity.Webhook;
+import hexlet.code.repository.WebhookRepository;
+import hexlet.code.service.UserService;
+import hexlet.code.service.WebhookService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.NoSuchElementException;
+
+@Service
+@RequiredArgsConstructor
+public class WebhookServiceImpl implements WebhookService {
+
+    private final WebhookRepository webhookRepository;
+    private final UserService userService;
+
+    @Override
+    public Webhook createNewWebhook(WebhookDto webhookDto) {
+        return webhookRepository.save(Webhook.builder()
+                .url(webhookDto.getUrl())
+                .eventType(webhookDto.getEventType())
+                .owner(userService.getCurrentUser())
+                .secret(webhookDto.getSecret())
+                .build());
+    }
+
+    @Override
+    public Webhook getWebhookById(long id) {
+        return webhookRepository.findById(id)
+                .orElseThrow(NoSuchElementException::new);
+    }
+
+    @Override
+    public List<Webhook> getAllWebhooks() {
+        return webhookRepository.findAllByOwner(userService.getCurrentUser());
+    }
+
+    @Override
+    public void deleteWebhookById(long id) {
+        webhookRepository.delete(getWebhookById(id));
+    }
+}
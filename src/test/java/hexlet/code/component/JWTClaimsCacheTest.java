@@ -0,0 +1,97 @@
+package hexlet.code.component;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static hexlet.code.component.JWTUtils.USER_ID_CLAIM;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class JWTClaimsCacheTest {
+
+    private static final String ISSUER = "kar_task_manager";
+    private static final long EXPIRATION_SEC = 900L;
+    private static final long NO_CLOCK_SKEW_SEC = 0L;
+    private static final long MAX_SIZE = 100L;
+    private static final Map<String, Object> ATTRIBUTES = Map.of(USER_ID_CLAIM, 1L);
+
+    private final AtomicInteger parsedTokens = new AtomicInteger();
+    private final MovableClock clock = new MovableClock();
+    private JWTUtils jwtUtils;
+    private JWTClaimsCache claimsCache;
+
+    @BeforeEach
+    public void initialization() {
+        parsedTokens.set(0);
+        jwtUtils = new JWTUtils(ISSUER, EXPIRATION_SEC, EXPIRATION_SEC, NO_CLOCK_SKEW_SEC,
+                JWTKeys.generate(JWTKeys.Algorithm.HS256), clock) {
+            @Override
+            public Map<String, Object> readJWSToken(final String token) {
+                parsedTokens.incrementAndGet();
+                return super.readJWSToken(token);
+            }
+        };
+        claimsCache = new JWTClaimsCache(jwtUtils, true, MAX_SIZE, new SimpleMeterRegistry(), clock);
+    }
+
+    @Test
+    void testTokenIsParsedOnceUntilExpiration() {
+        final String token = jwtUtils.createJWSToken(ATTRIBUTES);
+
+        final Map<String, Object> claims = claimsCache.readJWSToken(token);
+        claimsCache.readJWSToken(token);
+
+        assertEquals(1, parsedTokens.get());
+        assertEquals(claims, claimsCache.readJWSToken(token));
+    }
+
+    @Test
+    void testExpiredTokenIsNotAcceptedFromCache() {
+        final String token = jwtUtils.createJWSToken(ATTRIBUTES);
+        final Map<String, Object> claims = claimsCache.readJWSToken(token);
+
+        final Instant expiresAt = Instant.ofEpochSecond(((Number) claims.get(Claims.EXPIRATION)).longValue());
+        clock.moveTo(expiresAt.minusMillis(1));
+        claimsCache.readJWSToken(token);
+        assertEquals(1, parsedTokens.get());
+
+        // The parser accepts a token up to its expiration second inclusive
+        clock.moveTo(expiresAt.plusSeconds(1));
+        assertThrows(ExpiredJwtException.class, () -> claimsCache.readJWSToken(token));
+        assertEquals(2, parsedTokens.get());
+    }
+
+    // Both the cache and the parser read the time from it
+    private static final class MovableClock extends Clock {
+        private volatile Instant now = Instant.now();
+
+        void moveTo(final Instant instant) {
+            now = instant;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(final ZoneId zone) {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
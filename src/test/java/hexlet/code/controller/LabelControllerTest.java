@@ -5,6 +5,7 @@ import hexlet.code.config.SpringConfigForIT;
 import hexlet.code.dto.LabelDto;
 import hexlet.code.entity.Label;
 import hexlet.code.entity.TaskStatus;
+import hexlet.code.entity.User;
 import hexlet.code.repository.LabelRepository;
 import hexlet.code.repository.UserRepository;
 import hexlet.code.utils.TestUtils;
@@ -26,6 +27,7 @@ import java.util.NoSuchElementException;
 import static hexlet.code.config.SpringConfigForIT.TEST_PROFILE;
 import static hexlet.code.controller.LabelController.LABEL_CONTROLLER_PATH;
 import static hexlet.code.controller.UserController.ID;
+import static hexlet.code.filter.StatementMetricsFilter.QUERY_COUNT_HEADER;
 import static hexlet.code.utils.TestUtils.EMPTY_REPOSITORY_SIZE;
 import static hexlet.code.utils.TestUtils.FIRST_USER;
 import static hexlet.code.utils.TestUtils.ONE_ITEM_REPOSITORY_SIZE;
@@ -38,6 +40,7 @@ import static org.springframework.http.MediaType.APPLICATION_JSON;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @SpringBootTest(webEnvironment = RANDOM_PORT, classes = SpringConfigForIT.class)
@@ -130,6 +133,29 @@ class LabelControllerTest {
             assertEquals(expectedCount, labels.size());
         }
 
+        @Test
+        void testGetAllLabelsFromCache() throws Exception {
+            final var getRequest = get(LABEL_CONTROLLER_PATH);
+            utils.performAuthorizedRequest(getRequest, existingUserEmail)
+                    .andExpect(status().isOk());
+
+            final User existingUser = utils.getUserByEmail(existingUserEmail);
+            // Counted on the request thread only, statements of scheduled jobs running meanwhile are not included
+            utils.performAuthorizedRequest(getRequest, existingUser)
+                    .andExpect(status().isOk())
+                    .andExpect(header().string(QUERY_COUNT_HEADER, String.valueOf(EMPTY_REPOSITORY_SIZE)));
+
+            utils.performAuthorizedRequest(utils.createLabelUpdateRequest(labelId, SECOND_LABEL), existingUserEmail)
+                    .andExpect(status().isOk());
+            final var response = utils.performAuthorizedRequest(getRequest, existingUserEmail)
+                    .andExpect(status().isOk())
+                    .andReturn()
+                    .getResponse();
+
+            List<Label> labels = getInfoFromJson(response.getContentAsString(), new TypeReference<>() { });
+            assertEquals(SECOND_LABEL.getName(), labels.get(0).getName());
+        }
+
         @Test
         void testGetAllLabelsUnauthorizedFail() throws Exception {
             utils.createNewLabel(SECOND_LABEL, existingUserEmail);
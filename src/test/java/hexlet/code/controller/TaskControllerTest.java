@@ -1,17 +1,32 @@
 package hexlet.code.controller;
 
 import com.fasterxml.jackson.core.type.TypeReference;
+import hexlet.code.component.metrics.EndpointTag;
+import hexlet.code.component.metrics.ServiceMetricsAspect;
+import hexlet.code.component.outbox.OutboxRelay;
 import hexlet.code.config.SpringConfigForIT;
+import hexlet.code.dto.TaskBatchDto;
 import hexlet.code.dto.TaskDto;
+import hexlet.code.dto.TaskOperationDto;
+import hexlet.code.dto.TaskOperationResultDto;
+import hexlet.code.dto.TaskPatchDto;
 import hexlet.code.entity.Label;
+import hexlet.code.entity.OutboxEvent;
 import hexlet.code.entity.Task;
 import hexlet.code.entity.TaskStatus;
 import hexlet.code.entity.User;
+import hexlet.code.filter.StatementMetricsFilter;
 import hexlet.code.repository.LabelRepository;
+import hexlet.code.repository.OutboxEventRepository;
 import hexlet.code.repository.TaskRepository;
 import hexlet.code.repository.TaskStatusRepository;
 import hexlet.code.repository.UserRepository;
+import hexlet.code.service.TokenService;
+import hexlet.code.service.impl.TaskEventServiceImpl;
 import hexlet.code.utils.TestUtils;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
@@ -19,34 +34,62 @@ import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.util.LinkedMultiValueMap;
 
 import java.util.HashSet;
 import java.util.List;
 import java.util.Objects;
 import java.util.Set;
+import java.util.function.BooleanSupplier;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 import static hexlet.code.config.SpringConfigForIT.TEST_PROFILE;
 import static hexlet.code.controller.LabelController.LABEL_CONTROLLER_PATH;
 import static hexlet.code.controller.LabelControllerTest.FIRST_LABEL;
+import static hexlet.code.controller.LabelControllerTest.SECOND_LABEL;
+import static hexlet.code.controller.TaskController.EVENTS;
+import static hexlet.code.controller.TaskController.EXPORT;
+import static hexlet.code.controller.TaskController.NEXT_CURSOR_HEADER;
 import static hexlet.code.controller.TaskController.TASK_CONTROLLER_PATH;
 import static hexlet.code.controller.TaskStatusController.TASK_STATUS_CONTROLLER_PATH;
 import static hexlet.code.controller.UserController.ID;
 import static hexlet.code.controller.UserController.USER_CONTROLLER_PATH;
+import static hexlet.code.filter.StatementMetricsFilter.QUERY_COUNT_HEADER;
+import static hexlet.code.dto.TaskOperationDto.Type.CREATE;
+import static hexlet.code.dto.TaskOperationDto.Type.DELETE;
+import static hexlet.code.dto.TaskOperationDto.Type.UPDATE;
+import static hexlet.code.utils.PoisonEventHandler.POISON_TASK_NAME;
 import static hexlet.code.utils.TestUtils.EMPTY_REPOSITORY_SIZE;
 import static hexlet.code.utils.TestUtils.FIRST_USER;
 import static hexlet.code.utils.TestUtils.NEW_TASK_STATUS;
 import static hexlet.code.utils.TestUtils.ONE_ITEM_REPOSITORY_SIZE;
 import static hexlet.code.utils.TestUtils.SECOND_USER;
 import static hexlet.code.utils.TestUtils.getInfoFromJson;
+import static org.springframework.http.HttpHeaders.ETAG;
+import static org.springframework.http.HttpHeaders.IF_NONE_MATCH;
+import static org.springframework.http.HttpHeaders.LAST_MODIFIED;
 import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
+import static org.hamcrest.Matchers.not;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.springframework.boot.test.context.SpringBootTest.WebEnvironment.RANDOM_PORT;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @SpringBootTest(webEnvironment = RANDOM_PORT, classes = SpringConfigForIT.class)
@@ -58,6 +101,20 @@ class TaskControllerTest {
     private static final String TASK_NAME = "New task name";
     private static final String ANOTHER_TASK_NAME = "Another task name";
     private static final String NOT_VALID_TASK_NAME = "";
+    private static final String BLANK_TASK_NAME = "   ";
+    private static final String FIRST_FILTERED_TASK_NAME = "First filtered task";
+    private static final String SECOND_FILTERED_TASK_NAME = "Second filtered task";
+    private static final String THIRD_FILTERED_TASK_NAME = "Third filtered task";
+    private static final Long NOT_EXISTING_ID = Long.MAX_VALUE;
+    private static final int LARGE_TASK_LIST_SIZE = 1000;
+    private static final long EVENT_TIMEOUT_MILLIS = 5000;
+    private static final long EVENT_POLL_MILLIS = 20;
+    // One query reads tasks with their statuses, users and versions, and one reads labels of the whole page.
+    // A page answered with 304 is read the same way, only its body is skipped
+    private static final long TASK_LIST_STATEMENTS = 2;
+    // The ownership check reads author_id, the label links and the task row are deleted without loading the task,
+    // and the outbox event takes an id from its sequence
+    private static final long TASK_DELETE_STATEMENTS = 4;
     private static User existingUser;
     private static String existingUserEmail;
     private static TaskStatus existingTaskStatus;
@@ -76,6 +133,20 @@ class TaskControllerTest {
     private TestUtils utils;
     @Autowired
     private LabelRepository labelRepository;
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private MeterRegistry meterRegistry;
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+    @Autowired
+    private TaskEventServiceImpl taskEventService;
+    @Autowired
+    private TokenService tokenService;
+    @Value("${tasks.page.default-size:100}")
+    private int defaultPageSize;
+    @Value("${tasks.page.max-size:1000}")
+    private int maxPageSize;
 
     @BeforeEach
     public void initialization() throws Exception {
@@ -124,6 +195,234 @@ class TaskControllerTest {
                 .andExpect(status().isCreated());
     }
 
+    @Test
+    void testCreateTaskWithNotExistingLabelsFail() throws Exception {
+        final Long notExistingLabelId = NOT_EXISTING_ID;
+        final Set<Long> ids = new HashSet<>(labelsIds);
+        ids.add(notExistingLabelId);
+        final TaskDto taskDto = buildTaskDto(TASK_NAME, existingUser, existingTaskStatus, ids);
+
+        final String body = utils.createNewTask(taskDto, existingUserEmail)
+                .andExpect(status().isUnprocessableEntity())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+
+        assertThat(body).contains(notExistingLabelId.toString());
+        assertEquals(EMPTY_REPOSITORY_SIZE, taskRepository.count());
+    }
+
+    @Test
+    void testCreateTaskWithNotExistingTaskStatusFail() throws Exception {
+        final TaskDto taskDto = buildTaskDto(TASK_NAME, existingUser, existingTaskStatus, labelsIds);
+        taskDto.setTaskStatusId(NOT_EXISTING_ID);
+
+        utils.createNewTask(taskDto, existingUserEmail)
+                .andExpect(status().isUnprocessableEntity());
+
+        assertEquals(EMPTY_REPOSITORY_SIZE, taskRepository.count());
+    }
+
+    @Test
+    void testGetLargeTaskListWithFixedStatementCount() throws Exception {
+        final Label label = labelRepository.findAll().get(0);
+        final List<Task> tasks = IntStream.range(0, LARGE_TASK_LIST_SIZE)
+                .mapToObj(i -> Task.builder()
+                        .name(TASK_NAME + i)
+                        .author(existingUser)
+                        .executor(existingUser)
+                        .taskStatus(existingTaskStatus)
+                        .labels(Set.of(label))
+                        .build())
+                .toList();
+        taskRepository.saveAll(tasks);
+        // Statuses and labels that version the list are cached after the first request
+        utils.performAuthorizedRequest(get(TASK_CONTROLLER_PATH), existingUser);
+
+        final var getRequest = get(TASK_CONTROLLER_PATH).param("size", String.valueOf(LARGE_TASK_LIST_SIZE));
+        final var response = utils.performAuthorizedRequest(getRequest, existingUser)
+                .andExpect(status().isOk())
+                .andExpect(header().string(QUERY_COUNT_HEADER, String.valueOf(TASK_LIST_STATEMENTS)))
+                .andReturn()
+                .getResponse();
+
+        final List<Task> actualTasks = getInfoFromJson(response.getContentAsString(), new TypeReference<>() { });
+        assertEquals(LARGE_TASK_LIST_SIZE, actualTasks.size());
+    }
+
+    @Test
+    void testGetTasksWithoutPagingParametersIsCapped() throws Exception {
+        final int pageSize = Math.min(defaultPageSize, maxPageSize);
+        final List<Task> tasks = IntStream.range(0, pageSize + 1)
+                .mapToObj(i -> Task.builder()
+                        .name(TASK_NAME + i)
+                        .author(existingUser)
+                        .taskStatus(existingTaskStatus)
+                        .labels(Set.of())
+                        .build())
+                .toList();
+        taskRepository.saveAll(tasks);
+
+        final var response = utils.performAuthorizedRequest(get(TASK_CONTROLLER_PATH), existingUser)
+                .andExpect(status().isOk())
+                .andExpect(header().exists(NEXT_CURSOR_HEADER))
+                .andReturn()
+                .getResponse();
+
+        final List<Task> actualTasks = getInfoFromJson(response.getContentAsString(), new TypeReference<>() { });
+        assertEquals(pageSize, actualTasks.size());
+    }
+
+    // The frontend asks without paging parameters and follows the cursors until the header is gone
+    @Test
+    void testGetTasksFollowingCursorsReachesAllTasks() throws Exception {
+        final int taskCount = Math.min(defaultPageSize, maxPageSize) + 1;
+        taskRepository.saveAll(IntStream.range(0, taskCount)
+                .mapToObj(i -> Task.builder()
+                        .name(TASK_NAME + i)
+                        .author(existingUser)
+                        .taskStatus(existingTaskStatus)
+                        .labels(Set.of())
+                        .build())
+                .toList());
+
+        final Set<String> names = new HashSet<>();
+        String cursor = null;
+        do {
+            final var request = get(TASK_CONTROLLER_PATH);
+            if (cursor != null) {
+                request.param("cursor", cursor);
+            }
+            final var response = utils.performAuthorizedRequest(request, existingUser)
+                    .andExpect(status().isOk())
+                    .andReturn()
+                    .getResponse();
+            final List<Task> page = getInfoFromJson(response.getContentAsString(), new TypeReference<>() { });
+            page.forEach(task -> names.add(task.getName()));
+            cursor = response.getHeader(NEXT_CURSOR_HEADER);
+        } while (cursor != null);
+
+        assertEquals(taskCount, names.size());
+    }
+
+    @Test
+    void testStreamTaskEvents() throws Exception {
+        final MvcResult allEvents = utils.performAuthorizedRequest(get(TASK_CONTROLLER_PATH + EVENTS),
+                        existingUserEmail)
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        final MvcResult filteredEvents = utils.performAuthorizedRequest(
+                        get(TASK_CONTROLLER_PATH + EVENTS).param("name", ANOTHER_TASK_NAME), existingUserEmail)
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        utils.createNewTask(newTaskDto, existingUserEmail)
+                .andExpect(status().isCreated());
+        utils.createNewTask(anotherTaskDto, existingUserEmail)
+                .andExpect(status().isCreated());
+
+        // Events are sent in commit order, so the first task has been dispatched when the second one arrives
+        final String all = awaitContent(allEvents, ANOTHER_TASK_NAME);
+        final String filtered = awaitContent(filteredEvents, ANOTHER_TASK_NAME);
+        assertThat(all).contains("event:created").contains(TASK_NAME);
+        assertThat(filtered).contains("event:created").doesNotContain(TASK_NAME);
+
+        allEvents.getRequest().getAsyncContext().complete();
+        filteredEvents.getRequest().getAsyncContext().complete();
+    }
+
+    @Test
+    void testStreamTaskEventsAgreeWithTaskList() throws Exception {
+        final Long labelId = labelsIds.iterator().next();
+        final var filter = new LinkedMultiValueMap<String, String>();
+        filter.add("labels", labelId.toString());
+        filter.add("taskStatus", existingTaskStatus.getId().toString());
+        final MvcResult events = utils.performAuthorizedRequest(get(TASK_CONTROLLER_PATH + EVENTS).params(filter),
+                        existingUserEmail)
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        final List<TaskDto> tasks = List.of(
+                buildTaskDto(FIRST_FILTERED_TASK_NAME, existingUser, existingTaskStatus, labelsIds),
+                buildTaskDto(SECOND_FILTERED_TASK_NAME, existingUser, existingTaskStatus, Set.of()),
+                buildTaskDto(THIRD_FILTERED_TASK_NAME, existingUser, existingTaskStatus, labelsIds));
+        for (final TaskDto task : tasks) {
+            utils.createNewTask(task, existingUserEmail)
+                    .andExpect(status().isCreated());
+        }
+        // Events are sent in commit order, the last matching task comes after the others
+        final String streamed = awaitContent(events, THIRD_FILTERED_TASK_NAME);
+        events.getRequest().getAsyncContext().complete();
+
+        final var response = utils.performAuthorizedRequest(get(TASK_CONTROLLER_PATH).params(filter),
+                        existingUserEmail)
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse();
+        final List<Task> listed = getInfoFromJson(response.getContentAsString(), new TypeReference<>() { });
+        final Set<String> listedNames = listed.stream()
+                .map(Task::getName)
+                .collect(Collectors.toSet());
+
+        assertEquals(Set.of(FIRST_FILTERED_TASK_NAME, THIRD_FILTERED_TASK_NAME), listedNames);
+        tasks.forEach(task -> assertEquals(listedNames.contains(task.getName()), streamed.contains(task.getName()),
+                task.getName()));
+    }
+
+    @Test
+    void testTaskChangesAreRelayedFromOutbox() throws Exception {
+        final var dispatched = meterRegistry.get(OutboxRelay.EVENTS_METRIC_NAME).counter();
+        final double dispatchedBefore = dispatched.count();
+
+        utils.createNewTask(newTaskDto, existingUserEmail)
+                .andExpect(status().isCreated());
+
+        assertTrue(awaitCondition(() -> dispatched.count() > dispatchedBefore));
+        assertTrue(awaitCondition(() -> outboxEventRepository.count() == EMPTY_REPOSITORY_SIZE));
+    }
+
+    @Test
+    void testStreamTaskEventsWithInvalidFilterFail() throws Exception {
+        utils.performAuthorizedRequest(get(TASK_CONTROLLER_PATH + EVENTS).param("executor", "me"), existingUserEmail)
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void testTaskEventStreamEndsWhenTokenIsRevoked() throws Exception {
+        final var closed = meterRegistry.get(TaskEventServiceImpl.CLOSED_METRIC_NAME)
+                .tag("reason", "unauthorized")
+                .counter();
+        final double closedBefore = closed.count();
+        utils.performAuthorizedRequest(get(TASK_CONTROLLER_PATH + EVENTS), existingUserEmail)
+                .andExpect(request().asyncStarted());
+
+        // The token is checked before every event, a heartbeat included
+        tokenService.revokeAllUserTokens(existingUser.getId());
+        taskEventService.sendHeartbeats();
+
+        assertTrue(awaitCondition(() -> closed.count() > closedBefore));
+    }
+
+    @Test
+    void testFailingOutboxEventIsParked() throws Exception {
+        final var dispatched = meterRegistry.get(OutboxRelay.EVENTS_METRIC_NAME).counter();
+        final double dispatchedBefore = dispatched.count();
+
+        utils.createNewTask(buildTaskDto(POISON_TASK_NAME, existingUser, existingTaskStatus, labelsIds),
+                        existingUserEmail)
+                .andExpect(status().isCreated());
+        utils.createNewTask(newTaskDto, existingUserEmail)
+                .andExpect(status().isCreated());
+
+        // The other event is dispatched while the failing one is retried, and the failing one ends up parked
+        assertTrue(awaitCondition(() -> dispatched.count() > dispatchedBefore));
+        assertTrue(awaitCondition(() -> outboxEventRepository.findAll().stream()
+                .anyMatch(event -> event.getParkedAt() != null)));
+        final List<OutboxEvent> events = outboxEventRepository.findAll();
+        assertEquals(ONE_ITEM_REPOSITORY_SIZE, events.size());
+        assertThat(events.get(0).getPayload()).contains(POISON_TASK_NAME);
+    }
+
     @Nested
     class GetUpdateDeleteTests {
         private static Long taskId;
@@ -143,6 +442,7 @@ class TaskControllerTest {
 
             final var response = utils.performAuthorizedRequest(getRequest, existingUserEmail)
                     .andExpect(status().isOk())
+                    .andExpect(header().doesNotExist(NEXT_CURSOR_HEADER))
                     .andReturn()
                     .getResponse();
 
@@ -150,6 +450,176 @@ class TaskControllerTest {
             assertEquals(expectedCount, tasks.size());
         }
 
+        @Test
+        void testGetTasksPageByCursor() throws Exception {
+            utils.createNewTask(anotherTaskDto, existingUserEmail);
+
+            final var firstPage = utils.performAuthorizedRequest(get(TASK_CONTROLLER_PATH).param("size", "1"),
+                            existingUserEmail)
+                    .andExpect(status().isOk())
+                    .andExpect(header().exists(NEXT_CURSOR_HEADER))
+                    .andReturn()
+                    .getResponse();
+            final List<Task> firstTasks = getInfoFromJson(firstPage.getContentAsString(), new TypeReference<>() { });
+            assertEquals(ONE_ITEM_REPOSITORY_SIZE, firstTasks.size());
+            assertEquals(newTaskDto.getName(), firstTasks.get(0).getName());
+
+            final var nextPageRequest = get(TASK_CONTROLLER_PATH)
+                    .param("size", "1")
+                    .param("cursor", firstPage.getHeader(NEXT_CURSOR_HEADER));
+            final var secondPage = utils.performAuthorizedRequest(nextPageRequest, existingUserEmail)
+                    .andExpect(status().isOk())
+                    .andExpect(header().doesNotExist(NEXT_CURSOR_HEADER))
+                    .andReturn()
+                    .getResponse();
+            final List<Task> secondTasks = getInfoFromJson(secondPage.getContentAsString(), new TypeReference<>() { });
+            assertEquals(ONE_ITEM_REPOSITORY_SIZE, secondTasks.size());
+            assertEquals(anotherTaskDto.getName(), secondTasks.get(0).getName());
+        }
+
+        @Test
+        void testGetTasksFilteredByLabel() throws Exception {
+            utils.createNewTask(buildTaskDto(ANOTHER_TASK_NAME, existingUser, existingTaskStatus, Set.of()),
+                    existingUserEmail);
+            final Long labelId = labelsIds.iterator().next();
+
+            final var getRequest = get(TASK_CONTROLLER_PATH).param("labels", labelId.toString());
+            final var response = utils.performAuthorizedRequest(getRequest, existingUserEmail)
+                    .andExpect(status().isOk())
+                    .andReturn()
+                    .getResponse();
+
+            final List<Task> tasks = getInfoFromJson(response.getContentAsString(), new TypeReference<>() { });
+            assertEquals(ONE_ITEM_REPOSITORY_SIZE, tasks.size());
+            assertEquals(newTaskDto.getName(), tasks.get(0).getName());
+        }
+
+        @Test
+        void testGetTasksNotModified() throws Exception {
+            final String eTag = utils.performAuthorizedRequest(get(TASK_CONTROLLER_PATH), existingUserEmail)
+                    .andExpect(status().isOk())
+                    .andReturn()
+                    .getResponse()
+                    .getHeader(ETAG);
+            assertNotNull(eTag);
+
+            utils.performAuthorizedRequest(get(TASK_CONTROLLER_PATH).header(IF_NONE_MATCH, eTag), existingUserEmail)
+                    .andExpect(status().isNotModified())
+                    .andExpect(header().string(QUERY_COUNT_HEADER, String.valueOf(TASK_LIST_STATEMENTS)))
+                    .andExpect(content().string(""));
+
+            // Renamed label is shown in the list, so the list changes even though tasks do not
+            final Long labelId = labelsIds.iterator().next();
+            utils.performAuthorizedRequest(utils.createLabelUpdateRequest(labelId, SECOND_LABEL), existingUserEmail)
+                    .andExpect(status().isOk());
+
+            utils.performAuthorizedRequest(get(TASK_CONTROLLER_PATH).header(IF_NONE_MATCH, eTag), existingUserEmail)
+                    .andExpect(status().isOk())
+                    .andExpect(header().string(ETAG, not(eTag)));
+        }
+
+        @Test
+        void testGetTasksModifiedByTaskOfPage() throws Exception {
+            final var firstPageRequest = get(TASK_CONTROLLER_PATH).param("size", "1");
+            final String eTag = utils.performAuthorizedRequest(firstPageRequest, existingUserEmail)
+                    .andExpect(status().isOk())
+                    .andReturn()
+                    .getResponse()
+                    .getHeader(ETAG);
+
+            // A task added after the page gives the page a next cursor
+            utils.createNewTask(anotherTaskDto, existingUserEmail);
+            final String nextPageETag = utils.performAuthorizedRequest(
+                            get(TASK_CONTROLLER_PATH).param("size", "1").header(IF_NONE_MATCH, eTag),
+                            existingUserEmail)
+                    .andExpect(status().isOk())
+                    .andExpect(header().exists(NEXT_CURSOR_HEADER))
+                    .andExpect(header().string(ETAG, not(eTag)))
+                    .andReturn()
+                    .getResponse()
+                    .getHeader(ETAG);
+
+            utils.performAuthorizedRequest(utils.createTaskUpdateRequest(taskId, anotherTaskDto), existingUserEmail)
+                    .andExpect(status().isOk());
+            utils.performAuthorizedRequest(
+                            get(TASK_CONTROLLER_PATH).param("size", "1").header(IF_NONE_MATCH, nextPageETag),
+                            existingUserEmail)
+                    .andExpect(status().isOk())
+                    .andExpect(header().string(ETAG, not(nextPageETag)));
+        }
+
+        @Test
+        void testGetTaskByIdNotModified() throws Exception {
+            final var getRequest = get(TASK_CONTROLLER_PATH + ID, taskId);
+            final String eTag = utils.performAuthorizedRequest(getRequest, existingUserEmail)
+                    .andExpect(status().isOk())
+                    .andExpect(header().exists(LAST_MODIFIED))
+                    .andReturn()
+                    .getResponse()
+                    .getHeader(ETAG);
+            assertNotNull(eTag);
+
+            utils.performAuthorizedRequest(get(TASK_CONTROLLER_PATH + ID, taskId).header(IF_NONE_MATCH, eTag),
+                            existingUserEmail)
+                    .andExpect(status().isNotModified());
+
+            utils.performAuthorizedRequest(utils.createTaskUpdateRequest(taskId, anotherTaskDto), existingUserEmail)
+                    .andExpect(status().isOk());
+
+            utils.performAuthorizedRequest(get(TASK_CONTROLLER_PATH + ID, taskId).header(IF_NONE_MATCH, eTag),
+                            existingUserEmail)
+                    .andExpect(status().isOk())
+                    .andExpect(header().string(ETAG, not(eTag)));
+        }
+
+        @Test
+        void testGetTasksPageWithInvalidCursorFail() throws Exception {
+            final var getRequest = get(TASK_CONTROLLER_PATH).param("cursor", "not-a-cursor");
+
+            utils.performAuthorizedRequest(getRequest, existingUserEmail)
+                    .andExpect(status().isBadRequest());
+        }
+
+        @Test
+        void testExportTasks() throws Exception {
+            utils.createNewTask(anotherTaskDto, existingUserEmail);
+
+            final MvcResult exportResult = utils.performAuthorizedRequest(get(TASK_CONTROLLER_PATH + EXPORT),
+                            existingUserEmail)
+                    .andExpect(request().asyncStarted())
+                    .andReturn();
+            final String body = mockMvc.perform(asyncDispatch(exportResult))
+                    .andExpect(status().isOk())
+                    .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                    .andReturn()
+                    .getResponse()
+                    .getContentAsString();
+
+            final List<String> lines = body.lines().toList();
+            assertEquals(taskRepository.count(), lines.size());
+            final Task firstTask = getInfoFromJson(lines.get(0), new TypeReference<>() { });
+            assertEquals(taskId, firstTask.getId());
+            assertEquals(labelsIds.size(), firstTask.getLabels().size());
+        }
+
+        @Test
+        void testExportTasksAsCsv() throws Exception {
+            final var exportRequest = get(TASK_CONTROLLER_PATH + EXPORT).param("format", "CSV");
+
+            final MvcResult exportResult = utils.performAuthorizedRequest(exportRequest, existingUserEmail)
+                    .andExpect(request().asyncStarted())
+                    .andReturn();
+            final String body = mockMvc.perform(asyncDispatch(exportResult))
+                    .andExpect(status().isOk())
+                    .andReturn()
+                    .getResponse()
+                    .getContentAsString();
+
+            final List<String> lines = body.lines().toList();
+            assertEquals(ONE_ITEM_REPOSITORY_SIZE + 1, lines.size());
+            assertThat(lines.get(1)).startsWith(taskId + "," + newTaskDto.getName() + ",");
+        }
+
         @Test
         void testGetTaskById() throws Exception {
             final var getRequest = get(TASK_CONTROLLER_PATH + ID, taskId);
@@ -164,6 +634,30 @@ class TaskControllerTest {
             assertEquals(newTaskDto.getName(), actualTask.getName());
         }
 
+        @Test
+        void testGetTaskByIdRecordsMetrics() throws Exception {
+            final String endpoint = "GET " + TASK_CONTROLLER_PATH + ID;
+            final var serviceCalls = meterRegistry.find(ServiceMetricsAspect.METRIC_NAME)
+                    .tag("method", "getTaskById")
+                    .tag(EndpointTag.NAME, endpoint)
+                    .tag("outcome", ServiceMetricsAspect.SUCCESS);
+            final var statements = meterRegistry.find(StatementMetricsFilter.METRIC_NAME)
+                    .tag(EndpointTag.NAME, endpoint);
+            final long callsBefore = serviceCalls.timers().stream().mapToLong(Timer::count).sum();
+            final long requestsBefore = statements.summaries().stream()
+                    .mapToLong(DistributionSummary::count)
+                    .sum();
+
+            utils.performAuthorizedRequest(get(TASK_CONTROLLER_PATH + ID, taskId), existingUserEmail)
+                    .andExpect(status().isOk());
+
+            assertEquals(callsBefore + 1, serviceCalls.timers().stream().mapToLong(Timer::count).sum());
+            assertEquals(requestsBefore + 1, statements.summaries().stream()
+                    .mapToLong(DistributionSummary::count)
+                    .sum());
+            assertThat(statements.summary().max()).isPositive();
+        }
+
         @Test
         void testUpdateTask() throws Exception {
             utils.performAuthorizedRequest(utils.createTaskUpdateRequest(taskId, anotherTaskDto), existingUserEmail)
@@ -174,6 +668,118 @@ class TaskControllerTest {
             Assertions.assertNotNull(taskRepository.findByName(anotherTaskDto.getName()).orElse(null));
         }
 
+        @Test
+        void testPatchTask() throws Exception {
+            final TaskPatchDto taskPatchDto = new TaskPatchDto();
+            taskPatchDto.setName(ANOTHER_TASK_NAME);
+            taskPatchDto.setLabelIds(Set.of());
+
+            utils.performAuthorizedRequest(utils.createTaskPatchRequest(taskId, taskPatchDto), existingUserEmail)
+                    .andExpect(status().isOk());
+
+            final Task patchedTask = taskRepository.findById(taskId).get();
+            assertEquals(ANOTHER_TASK_NAME, patchedTask.getName());
+            assertEquals(DEFAULT_TASK_DESCRIPTION, patchedTask.getDescription());
+            assertEquals(existingTaskStatus.getId(), patchedTask.getTaskStatus().getId());
+            assertEquals(existingUser.getId(), patchedTask.getExecutor().getId());
+            Assertions.assertTrue(patchedTask.getLabels().isEmpty());
+        }
+
+        @Test
+        void testPatchTaskWithNotValidNameFail() throws Exception {
+            final TaskPatchDto taskPatchDto = new TaskPatchDto();
+            taskPatchDto.setName(NOT_VALID_TASK_NAME);
+
+            utils.performAuthorizedRequest(utils.createTaskPatchRequest(taskId, taskPatchDto), existingUserEmail)
+                    .andExpect(status().isUnprocessableEntity());
+
+            Assertions.assertNotNull(taskRepository.findByName(newTaskDto.getName()).orElse(null));
+        }
+
+        @Test
+        void testPatchTaskWithBlankNameFail() throws Exception {
+            final TaskPatchDto taskPatchDto = new TaskPatchDto();
+            taskPatchDto.setName(BLANK_TASK_NAME);
+
+            utils.performAuthorizedRequest(utils.createTaskPatchRequest(taskId, taskPatchDto), existingUserEmail)
+                    .andExpect(status().isUnprocessableEntity());
+
+            Assertions.assertNotNull(taskRepository.findByName(newTaskDto.getName()).orElse(null));
+        }
+
+        @Test
+        void testProcessBatch() throws Exception {
+            final TaskBatchDto taskBatchDto = new TaskBatchDto(List.of(
+                    new TaskOperationDto(CREATE, null, anotherTaskDto),
+                    new TaskOperationDto(UPDATE, taskId, buildTaskDto(TASK_NAME + 1, existingUser,
+                            existingTaskStatus, labelsIds)),
+                    new TaskOperationDto(CREATE, null, buildTaskDto(TASK_NAME + 2, existingUser,
+                            existingTaskStatus, Set.of()))
+            ));
+
+            final var response = utils.performAuthorizedRequest(utils.createTaskBatchRequest(taskBatchDto),
+                            existingUserEmail)
+                    .andExpect(status().isOk())
+                    .andReturn()
+                    .getResponse();
+
+            final List<TaskOperationResultDto> results = getInfoFromJson(response.getContentAsString(),
+                    new TypeReference<>() { });
+            assertEquals(taskBatchDto.getOperations().size(), results.size());
+            assertEquals(taskId, results.get(1).getId());
+            assertEquals(3, taskRepository.count());
+            Assertions.assertTrue(taskRepository.existsById(results.get(0).getId()));
+            Assertions.assertNotNull(taskRepository.findByName(TASK_NAME + 1).orElse(null));
+        }
+
+        @Test
+        void testProcessBatchWithFailedOperationFail() throws Exception {
+            final TaskBatchDto taskBatchDto = new TaskBatchDto(List.of(
+                    new TaskOperationDto(CREATE, null, anotherTaskDto),
+                    new TaskOperationDto(DELETE, taskId, null),
+                    new TaskOperationDto(UPDATE, NOT_EXISTING_ID, anotherTaskDto)
+            ));
+
+            final var response = utils.performAuthorizedRequest(utils.createTaskBatchRequest(taskBatchDto),
+                            existingUserEmail)
+                    .andExpect(status().isUnprocessableEntity())
+                    .andReturn()
+                    .getResponse();
+
+            final List<TaskOperationResultDto> results = getInfoFromJson(response.getContentAsString(),
+                    new TypeReference<>() { });
+            assertEquals(HttpStatus.FAILED_DEPENDENCY.value(), results.get(0).getStatus());
+            assertEquals(HttpStatus.NOT_FOUND.value(), results.get(2).getStatus());
+            assertEquals(ONE_ITEM_REPOSITORY_SIZE, taskRepository.count());
+            Assertions.assertTrue(taskRepository.existsById(taskId));
+        }
+
+        @Test
+        void testProcessBatchWithNotExistingExecutorFail() throws Exception {
+            final TaskDto taskWithNotExistingExecutor = buildTaskDto(TASK_NAME + 1, existingUser,
+                    existingTaskStatus, Set.of());
+            taskWithNotExistingExecutor.setExecutorId(NOT_EXISTING_ID);
+            final TaskBatchDto taskBatchDto = new TaskBatchDto(List.of(
+                    new TaskOperationDto(CREATE, null, anotherTaskDto),
+                    new TaskOperationDto(CREATE, null, taskWithNotExistingExecutor),
+                    new TaskOperationDto(UPDATE, taskId, anotherTaskDto)
+            ));
+
+            final var response = utils.performAuthorizedRequest(utils.createTaskBatchRequest(taskBatchDto),
+                            existingUserEmail)
+                    .andExpect(status().isUnprocessableEntity())
+                    .andReturn()
+                    .getResponse();
+
+            final List<TaskOperationResultDto> results = getInfoFromJson(response.getContentAsString(),
+                    new TypeReference<>() { });
+            assertEquals(HttpStatus.FAILED_DEPENDENCY.value(), results.get(0).getStatus());
+            assertEquals(HttpStatus.UNPROCESSABLE_ENTITY.value(), results.get(1).getStatus());
+            assertEquals(HttpStatus.FAILED_DEPENDENCY.value(), results.get(2).getStatus());
+            assertEquals(ONE_ITEM_REPOSITORY_SIZE, taskRepository.count());
+            Assertions.assertNull(taskRepository.findByName(TASK_NAME + 1).orElse(null));
+        }
+
         @Test
         public void testUpdateAnotherUserTaskFail() throws Exception {
             utils.createNewUser(SECOND_USER);
@@ -192,9 +798,19 @@ class TaskControllerTest {
             final var deleteRequest = delete(TASK_CONTROLLER_PATH + ID, taskId);
 
             utils.performAuthorizedRequest(deleteRequest, existingUserEmail)
-                    .andExpect(status().isOk());
+                    .andExpect(status().isOk())
+                    .andExpect(header().string(QUERY_COUNT_HEADER, String.valueOf(TASK_DELETE_STATEMENTS)));
 
             assertEquals(EMPTY_REPOSITORY_SIZE, taskRepository.count());
+            assertEquals(ONE_ITEM_REPOSITORY_SIZE, labelRepository.count());
+        }
+
+        @Test
+        public void testDeleteNonExistTaskFail() throws Exception {
+            final var deleteRequest = delete(TASK_CONTROLLER_PATH + ID, NOT_EXISTING_ID);
+
+            utils.performAuthorizedRequest(deleteRequest, existingUserEmail)
+                    .andExpect(status().isNotFound());
         }
 
         @Test
@@ -251,6 +867,24 @@ class TaskControllerTest {
         }
     }
 
+    private static String awaitContent(final MvcResult result, final String expected) throws Exception {
+        final long deadline = System.currentTimeMillis() + EVENT_TIMEOUT_MILLIS;
+        String content = result.getResponse().getContentAsString();
+        while (!content.contains(expected) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(EVENT_POLL_MILLIS);
+            content = result.getResponse().getContentAsString();
+        }
+        return content;
+    }
+
+    private static boolean awaitCondition(final BooleanSupplier condition) throws InterruptedException {
+        final long deadline = System.currentTimeMillis() + EVENT_TIMEOUT_MILLIS;
+        while (!condition.getAsBoolean() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(EVENT_POLL_MILLIS);
+        }
+        return condition.getAsBoolean();
+    }
+
     private TaskDto buildTaskDto(final String name,
                                  final User user,
                                  final TaskStatus taskStatus,
@@ -23,11 +23,16 @@ import static hexlet.code.utils.TestUtils.EMPTY_REPOSITORY_SIZE;
 import static hexlet.code.utils.TestUtils.FIRST_USER;
 import static hexlet.code.utils.TestUtils.NEW_TASK_STATUS;
 import static hexlet.code.utils.TestUtils.ONE_ITEM_REPOSITORY_SIZE;
+import static org.hamcrest.Matchers.not;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.springframework.boot.test.context.SpringBootTest.WebEnvironment.RANDOM_PORT;
+import static org.springframework.http.HttpHeaders.ETAG;
+import static org.springframework.http.HttpHeaders.IF_NONE_MATCH;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @SpringBootTest(webEnvironment = RANDOM_PORT, classes = SpringConfigForIT.class)
@@ -83,6 +88,29 @@ class TaskStatusControllerTest {
                     .andExpect(status().isNotFound());
         }
 
+        @Test
+        void testGetAllTaskStatusesNotModified() throws Exception {
+            final String eTag = utils.performAuthorizedRequest(get(TASK_STATUS_CONTROLLER_PATH), existingUserEmail)
+                    .andExpect(status().isOk())
+                    .andReturn()
+                    .getResponse()
+                    .getHeader(ETAG);
+            assertNotNull(eTag);
+
+            utils.performAuthorizedRequest(get(TASK_STATUS_CONTROLLER_PATH).header(IF_NONE_MATCH, eTag),
+                            existingUserEmail)
+                    .andExpect(status().isNotModified());
+
+            utils.performAuthorizedRequest(
+                    utils.createTaskStatusUpdateRequest(taskStatusId, AT_WORK_TASK_STATUS), existingUserEmail)
+                    .andExpect(status().isOk());
+
+            utils.performAuthorizedRequest(get(TASK_STATUS_CONTROLLER_PATH).header(IF_NONE_MATCH, eTag),
+                            existingUserEmail)
+                    .andExpect(status().isOk())
+                    .andExpect(header().string(ETAG, not(eTag)));
+        }
+
         @Test
         void testUpdateTaskStatus() throws Exception {
             utils.performAuthorizedRequest(
@@ -1,28 +1,61 @@
 package hexlet.code.controller;
 
 import com.fasterxml.jackson.core.type.TypeReference;
+import hexlet.code.component.JWTKeys;
 import hexlet.code.component.JWTUtils;
+import hexlet.code.component.PasswordHashingExecutor;
 import hexlet.code.config.SpringConfigForIT;
+import hexlet.code.config.security.RefreshTokenCookie;
 import hexlet.code.dto.LoginDto;
+import hexlet.code.entity.RevokedToken;
 import hexlet.code.entity.User;
+import hexlet.code.repository.RevokedTokenRepository;
 import hexlet.code.repository.UserRepository;
+import hexlet.code.service.UserService;
 import hexlet.code.utils.TestUtils;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
-
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import jakarta.servlet.http.Cookie;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
 import java.util.List;
-
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static hexlet.code.component.JWTUtils.TOKEN_TYPE_CLAIM;
+import static hexlet.code.component.JWTUtils.USER_ID_CLAIM;
 import static hexlet.code.config.SpringConfigForIT.TEST_PROFILE;
 import static hexlet.code.config.security.SecurityConfig.LOGIN;
+import static hexlet.code.controller.AuthController.LOGOUT;
+import static hexlet.code.controller.AuthController.REFRESH;
 import static hexlet.code.controller.UserController.ID;
 import static hexlet.code.controller.UserController.USER_CONTROLLER_PATH;
 import static hexlet.code.utils.TestUtils.EMPTY_REPOSITORY_SIZE;
@@ -43,11 +76,16 @@ import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.springframework.boot.test.context.SpringBootTest.WebEnvironment.RANDOM_PORT;
+import static org.springframework.http.HttpHeaders.AUTHORIZATION;
+import static org.springframework.http.HttpHeaders.COOKIE;
+import static org.springframework.http.HttpHeaders.RETRY_AFTER;
+import static org.springframework.http.HttpHeaders.WWW_AUTHENTICATE;
 import static org.springframework.http.MediaType.APPLICATION_JSON;
 import static org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter.SPRING_SECURITY_FORM_USERNAME_KEY;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @SpringBootTest(webEnvironment = RANDOM_PORT, classes = SpringConfigForIT.class)
@@ -55,6 +93,9 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 @ActiveProfiles(TEST_PROFILE)
 @ExtendWith(SpringExtension.class)
 public class UserControllerTest {
+    private static final int WEAK_BCRYPT_STRENGTH = 4;
+    private static final long SATURATION_TIMEOUT_MILLIS = 5000;
+    private static final long SATURATION_POLL_MILLIS = 20;
     @Autowired
     private UserRepository userRepository;
     @Autowired
@@ -63,6 +104,22 @@ public class UserControllerTest {
     private PasswordEncoder passwordEncoder;
     @Autowired
     private JWTUtils jwtUtils;
+    @Autowired
+    private JWTKeys jwtKeys;
+    @Autowired
+    private RevokedTokenRepository revokedTokenRepository;
+    @Autowired
+    private PasswordHashingExecutor passwordHashingExecutor;
+    @Autowired
+    private MeterRegistry meterRegistry;
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    @Value("${jwt.issuer:kar_task_manager}")
+    private String jwtIssuer;
+    @LocalServerPort
+    private int port;
 
     @AfterEach
     public void clear() {
@@ -89,12 +146,46 @@ public class UserControllerTest {
 
         final String token = response.getContentAsString().trim();
 
-        final String expectedUsername = FIRST_USER.getEmail();
-        final String actualUsername = jwtUtils.readJWSToken(token)
-                .get(SPRING_SECURITY_FORM_USERNAME_KEY)
-                .toString();
+        final Map<String, Object> claims = jwtUtils.readJWSToken(token);
 
+        final String expectedUsername = FIRST_USER.getEmail();
+        final String actualUsername = claims.get(SPRING_SECURITY_FORM_USERNAME_KEY).toString();
         assertEquals(expectedUsername, actualUsername);
+
+        final Long expectedUserId = utils.getUserByEmail(FIRST_USER.getEmail()).getId();
+        final Long actualUserId = ((Number) claims.get(USER_ID_CLAIM)).longValue();
+        assertEquals(expectedUserId, actualUserId);
+
+        final Cookie refreshCookie = response.getCookie(RefreshTokenCookie.NAME);
+        assertNotNull(refreshCookie);
+        assertTrue(refreshCookie.isHttpOnly());
+        assertTrue(JWTUtils.isTokenOfType(
+                jwtUtils.readJWSToken(refreshCookie.getValue()), JWTUtils.TokenType.REFRESH));
+    }
+
+    @Test
+    public void testLoginRehashesWeakPassword() throws Exception {
+        utils.createNewUser(FIRST_USER);
+        final User user = utils.getUserByEmail(FIRST_USER.getEmail());
+        final String weakHash = new BCryptPasswordEncoder(WEAK_BCRYPT_STRENGTH).encode(FIRST_USER.getPassword());
+        user.setPassword(weakHash);
+        userRepository.save(user);
+
+        final LoginDto loginDto = new LoginDto(
+                FIRST_USER.getEmail(),
+                FIRST_USER.getPassword()
+        );
+        final var loginRequest = post(LOGIN)
+                .content(asJson(loginDto))
+                .contentType(APPLICATION_JSON);
+
+        utils.performUnauthorizedRequest(loginRequest)
+                .andExpect(status().isOk());
+
+        final String actualHash = utils.getUserByEmail(FIRST_USER.getEmail()).getPassword();
+        assertNotEquals(weakHash, actualHash);
+        assertFalse(passwordEncoder.upgradeEncoding(actualHash));
+        assertTrue(passwordEncoder.matches(FIRST_USER.getPassword(), actualHash));
     }
 
     @Test
@@ -112,6 +203,179 @@ public class UserControllerTest {
                 .andExpect(status().isUnauthorized());
     }
 
+    @Test
+    public void testLoginOverloadedFail() throws Exception {
+        utils.createNewUser(FIRST_USER);
+        final int capacity = (int) (executorGauge("executor.pool.core") + executorGauge("executor.queue.remaining"));
+        final CountDownLatch release = new CountDownLatch(1);
+        final ExecutorService callers = Executors.newFixedThreadPool(capacity);
+        try {
+            // Every pool thread is busy and the queue is full, as in a login storm. Checks are sent one by one:
+            // an idle pool thread takes its check off the queue a moment later, so checks sent at once could
+            // overflow the queue before it does
+            for (int i = 0; i < capacity; i++) {
+                callers.execute(() -> passwordHashingExecutor.execute(() -> awaitRelease(release)));
+                awaitPendingChecks(i + 1);
+            }
+            assertEquals(0, executorGauge("executor.queue.remaining"));
+
+            final var loginRequest = post(LOGIN)
+                    .content(asJson(new LoginDto(FIRST_USER.getEmail(), FIRST_USER.getPassword())))
+                    .contentType(APPLICATION_JSON);
+            utils.performUnauthorizedRequest(loginRequest)
+                    .andExpect(status().isServiceUnavailable())
+                    .andExpect(header().string(RETRY_AFTER,
+                            String.valueOf(passwordHashingExecutor.getRetryAfter().toSeconds())));
+        } finally {
+            release.countDown();
+            callers.shutdown();
+            assertTrue(callers.awaitTermination(SATURATION_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS));
+        }
+    }
+
+    private void awaitPendingChecks(final int count) throws InterruptedException {
+        final long deadline = System.currentTimeMillis() + SATURATION_TIMEOUT_MILLIS;
+        while (executorGauge("executor.active") + executorGauge("executor.queued") < count
+                && System.currentTimeMillis() < deadline) {
+            Thread.sleep(SATURATION_POLL_MILLIS);
+        }
+    }
+
+    private double executorGauge(final String name) {
+        return meterRegistry.get(name)
+                .tag("name", PasswordHashingExecutor.EXECUTOR_NAME)
+                .gauge()
+                .value();
+    }
+
+    private static Boolean awaitRelease(final CountDownLatch release) {
+        try {
+            return release.await(SATURATION_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    @Test
+    public void testRefreshTokens() throws Exception {
+        utils.createNewUser(FIRST_USER);
+        final Cookie refreshCookie = login(FIRST_USER.getEmail(), FIRST_USER.getPassword())
+                .getCookie(RefreshTokenCookie.NAME);
+
+        final var response = utils.performUnauthorizedRequest(post(REFRESH).cookie(refreshCookie))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse();
+
+        final String accessToken = response.getContentAsString();
+        final Long userId = utils.getUserByEmail(FIRST_USER.getEmail()).getId();
+        utils.performUnauthorizedRequest(get(USER_CONTROLLER_PATH + ID, userId).header(AUTHORIZATION, accessToken))
+                .andExpect(status().isOk());
+
+        final Cookie rotatedCookie = response.getCookie(RefreshTokenCookie.NAME);
+        assertNotNull(rotatedCookie);
+        assertNotEquals(refreshCookie.getValue(), rotatedCookie.getValue());
+
+        // A refresh token is accepted once, and it is never accepted as an access token
+        utils.performUnauthorizedRequest(post(REFRESH).cookie(refreshCookie))
+                .andExpect(status().isUnauthorized());
+        utils.performUnauthorizedRequest(
+                get(USER_CONTROLLER_PATH + ID, userId).header(AUTHORIZATION, rotatedCookie.getValue()))
+                .andExpect(status().isUnauthorized());
+    }
+
+    // Another node rotated the token, and this node has not synced the denylist yet
+    @Test
+    public void testRefreshTokenRevokedOnOtherNodeFail() throws Exception {
+        utils.createNewUser(FIRST_USER);
+        final Cookie refreshCookie = login(FIRST_USER.getEmail(), FIRST_USER.getPassword())
+                .getCookie(RefreshTokenCookie.NAME);
+        final Map<String, Object> claims = jwtUtils.readJWSToken(refreshCookie.getValue());
+        revokedTokenRepository.save(RevokedToken.builder()
+                .tokenId(claims.get(Claims.ID).toString())
+                .expiresAt(Date.from(Instant.ofEpochSecond(((Number) claims.get(Claims.EXPIRATION)).longValue())))
+                .build());
+
+        utils.performUnauthorizedRequest(post(REFRESH).cookie(refreshCookie))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    public void testRefreshWithoutTokenFail() throws Exception {
+        utils.performUnauthorizedRequest(post(REFRESH))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    public void testLogoutRevokesTokens() throws Exception {
+        utils.createNewUser(FIRST_USER);
+        final Long userId = utils.getUserByEmail(FIRST_USER.getEmail()).getId();
+        final var loginResponse = login(FIRST_USER.getEmail(), FIRST_USER.getPassword());
+        final String accessToken = loginResponse.getContentAsString().trim();
+        final Cookie refreshCookie = loginResponse.getCookie(RefreshTokenCookie.NAME);
+
+        utils.performUnauthorizedRequest(post(LOGOUT).header(AUTHORIZATION, accessToken).cookie(refreshCookie))
+                .andExpect(status().isOk());
+
+        utils.performUnauthorizedRequest(get(USER_CONTROLLER_PATH + ID, userId).header(AUTHORIZATION, accessToken))
+                .andExpect(status().isUnauthorized());
+        utils.performUnauthorizedRequest(post(REFRESH).cookie(refreshCookie))
+                .andExpect(status().isUnauthorized());
+    }
+
+    // Over HTTP, so that the response is what a browser gets after the error dispatch, not only what the filter set
+    @Test
+    public void testExpiredAccessTokenIsRefreshed() throws Exception {
+        utils.createNewUser(FIRST_USER);
+        final Long userId = utils.getUserByEmail(FIRST_USER.getEmail()).getId();
+        final Cookie refreshCookie = login(FIRST_USER.getEmail(), FIRST_USER.getPassword())
+                .getCookie(RefreshTokenCookie.NAME);
+        final Instant issuedAt = Instant.now().minus(Duration.ofMinutes(48));
+        final String expiredToken = Jwts.builder()
+                .claims(Map.of(SPRING_SECURITY_FORM_USERNAME_KEY, FIRST_USER.getEmail(), USER_ID_CLAIM, userId))
+                .issuer(jwtIssuer)
+                .issuedAt(Date.from(issuedAt))
+                .expiration(Date.from(issuedAt.plus(Duration.ofMinutes(15))))
+                .claim(TOKEN_TYPE_CLAIM, JWTUtils.TokenType.ACCESS.name())
+                .signWith(jwtKeys.signingKey())
+                .compact();
+        final HttpClient client = HttpClient.newHttpClient();
+
+        final var rejected = client.send(getUserRequest(userId, expiredToken), HttpResponse.BodyHandlers.ofString());
+        assertEquals(401, rejected.statusCode());
+        assertThat(rejected.headers().firstValue(WWW_AUTHENTICATE).orElse("")).startsWith("Bearer");
+
+        final var refreshed = client.send(HttpRequest.newBuilder(URI.create("http://localhost:" + port + REFRESH))
+                        .header(COOKIE, RefreshTokenCookie.NAME + "=" + refreshCookie.getValue())
+                        .POST(HttpRequest.BodyPublishers.noBody())
+                        .build(),
+                HttpResponse.BodyHandlers.ofString());
+        assertEquals(200, refreshed.statusCode());
+
+        final var retried = client.send(getUserRequest(userId, refreshed.body().trim()),
+                HttpResponse.BodyHandlers.ofString());
+        assertEquals(200, retried.statusCode());
+    }
+
+    private HttpRequest getUserRequest(final Long userId, final String accessToken) {
+        return HttpRequest.newBuilder(URI.create("http://localhost:" + port + USER_CONTROLLER_PATH + "/" + userId))
+                .header(AUTHORIZATION, "Bearer " + accessToken)
+                .GET()
+                .build();
+    }
+
+    private MockHttpServletResponse login(final String email, final String password) throws Exception {
+        final var loginRequest = post(LOGIN)
+                .content(asJson(new LoginDto(email, password)))
+                .contentType(APPLICATION_JSON);
+
+        return utils.performUnauthorizedRequest(loginRequest)
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse();
+    }
+
     @Test
     public void testCreateUser() throws Exception {
         assertEquals(EMPTY_REPOSITORY_SIZE, userRepository.count());
@@ -227,6 +491,34 @@ public class UserControllerTest {
             assertNotNull(userRepository.findByEmail(SECOND_USER.getEmail()).orElse(null));
         }
 
+        @Test
+        public void testUpdatePasswordRevokesTokens() throws Exception {
+            final String accessToken = login(firstUserEmail, FIRST_USER.getPassword()).getContentAsString().trim();
+
+            utils.performUnauthorizedRequest(utils.createUserUpdateRequest(firstUserId, SECOND_USER)
+                            .header(AUTHORIZATION, accessToken))
+                    .andExpect(status().isOk());
+
+            utils.performUnauthorizedRequest(
+                    get(USER_CONTROLLER_PATH + ID, firstUserId).header(AUTHORIZATION, accessToken))
+                    .andExpect(status().isUnauthorized());
+        }
+
+        @Test
+        public void testRolledBackUpdateKeepsTokens() throws Exception {
+            final String accessToken = login(firstUserEmail, FIRST_USER.getPassword()).getContentAsString().trim();
+
+            // The new password revokes the tokens, then the update is rolled back
+            new TransactionTemplate(transactionManager).executeWithoutResult(transaction -> {
+                userService.updateUserById(firstUserId, SECOND_USER);
+                transaction.setRollbackOnly();
+            });
+
+            utils.performUnauthorizedRequest(
+                    get(USER_CONTROLLER_PATH + ID, firstUserId).header(AUTHORIZATION, accessToken))
+                    .andExpect(status().isOk());
+        }
+
         @Test
         public void testDeleteUser() throws Exception {
             final var deleteRequest = delete(USER_CONTROLLER_PATH + ID, firstUserId);
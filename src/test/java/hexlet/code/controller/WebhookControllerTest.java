@@ -0,0 +1,334 @@
+package hexlet.code.controller;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.sun.net.httpserver.HttpServer;
+import hexlet.code.component.webhook.WebhookDispatcher;
+import hexlet.code.component.webhook.WebhookSender;
+import hexlet.code.config.SpringConfigForIT;
+import hexlet.code.dto.TaskDto;
+import hexlet.code.dto.WebhookDto;
+import hexlet.code.entity.User;
+import hexlet.code.entity.Webhook;
+import hexlet.code.entity.WebhookDelivery;
+import hexlet.code.repository.TaskStatusRepository;
+import hexlet.code.repository.UserRepository;
+import hexlet.code.repository.WebhookDeliveryRepository;
+import hexlet.code.repository.WebhookRepository;
+import hexlet.code.utils.TestUtils;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static hexlet.code.config.SpringConfigForIT.TEST_PROFILE;
+import static hexlet.code.controller.UserController.ID;
+import static hexlet.code.controller.WebhookController.WEBHOOK_CONTROLLER_PATH;
+import static hexlet.code.utils.TestUtils.EMPTY_REPOSITORY_SIZE;
+import static hexlet.code.utils.TestUtils.FIRST_USER;
+import static hexlet.code.utils.TestUtils.NEW_TASK_STATUS;
+import static hexlet.code.utils.TestUtils.ONE_ITEM_REPOSITORY_SIZE;
+import static hexlet.code.utils.TestUtils.SECOND_USER;
+import static hexlet.code.utils.TestUtils.getInfoFromJson;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.boot.test.context.SpringBootTest.WebEnvironment.RANDOM_PORT;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(webEnvironment = RANDOM_PORT, classes = SpringConfigForIT.class)
+@AutoConfigureMockMvc
+@ActiveProfiles(TEST_PROFILE)
+@ExtendWith(SpringExtension.class)
+class WebhookControllerTest {
+    private static final String RECEIVER_PATH = "/hook";
+    private static final String TASK_CREATED = "task.created";
+    private static final String TASK_DELETED = "task.deleted";
+    private static final String FIRST_TASK_NAME = "First task";
+    private static final String SECOND_TASK_NAME = "Second task";
+    private static final String SECRET = "webhook-test-secret";
+    private static final String RECEIVER_URL = "http://localhost" + RECEIVER_PATH;
+    private static final int MAX_URL_LENGTH = 2048;
+    private static final long DELIVERY_TIMEOUT_MILLIS = 5000;
+    private static final long DELIVERY_POLL_MILLIS = 20;
+    private static String existingUserEmail;
+    @Autowired
+    private WebhookRepository webhookRepository;
+    @Autowired
+    private WebhookDeliveryRepository webhookDeliveryRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private TaskStatusRepository taskStatusRepository;
+    @Autowired
+    private MeterRegistry meterRegistry;
+    @Autowired
+    private TestUtils utils;
+
+    @BeforeEach
+    public void initialization() throws Exception {
+        utils.createNewUser(FIRST_USER);
+        existingUserEmail = userRepository.findAll().get(0).getEmail();
+    }
+
+    @AfterEach
+    public void clear() {
+        utils.tearDown();
+    }
+
+    @Test
+    void testCreateNewWebhook() throws Exception {
+        assertEquals(EMPTY_REPOSITORY_SIZE, webhookRepository.count());
+
+        final String response = utils.createNewWebhook(new WebhookDto(RECEIVER_URL, TASK_CREATED, SECRET),
+                        existingUserEmail)
+                .andExpect(status().isCreated())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+
+        assertEquals(ONE_ITEM_REPOSITORY_SIZE, webhookRepository.count());
+        final Long webhookId = webhookRepository.findAll().get(0).getId();
+        assertEquals(utils.getUserByEmail(existingUserEmail).getId(),
+                webhookRepository.findOwnerIdById(webhookId).orElseThrow());
+        assertThat(response).doesNotContain(SECRET);
+    }
+
+    @Test
+    void testCreateNewWebhookWithNotValidEventTypeFail() throws Exception {
+        utils.createNewWebhook(new WebhookDto(RECEIVER_URL, "task.renamed", SECRET), existingUserEmail)
+                .andExpect(status().isUnprocessableEntity());
+        utils.createNewWebhook(new WebhookDto("ftp://localhost" + RECEIVER_PATH, TASK_CREATED, SECRET),
+                        existingUserEmail)
+                .andExpect(status().isUnprocessableEntity());
+        utils.createNewWebhook(new WebhookDto(RECEIVER_URL, TASK_CREATED, "short"), existingUserEmail)
+                .andExpect(status().isUnprocessableEntity());
+
+        assertEquals(EMPTY_REPOSITORY_SIZE, webhookRepository.count());
+    }
+
+    @Test
+    void testCreateNewWebhookWithTooLongUrlFail() throws Exception {
+        final String url = RECEIVER_URL + "/" + "a".repeat(MAX_URL_LENGTH - RECEIVER_URL.length());
+
+        utils.createNewWebhook(new WebhookDto(url, TASK_CREATED, SECRET), existingUserEmail)
+                .andExpect(status().isUnprocessableEntity());
+
+        assertEquals(EMPTY_REPOSITORY_SIZE, webhookRepository.count());
+    }
+
+    @Test
+    void testTaskEventsAreDeliveredInBatches() throws Exception {
+        final Queue<String> deliveries = new ConcurrentLinkedQueue<>();
+        final AtomicInteger attempts = new AtomicInteger();
+        final HttpServer receiver = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        // The first delivery fails and is retried, batches with a wrong signature are not accepted
+        receiver.createContext(RECEIVER_PATH, exchange -> {
+            final byte[] body = exchange.getRequestBody().readAllBytes();
+            final String timestamp = exchange.getRequestHeaders().getFirst(WebhookSender.TIMESTAMP_HEADER);
+            final String signature = exchange.getRequestHeaders().getFirst(WebhookSender.SIGNATURE_HEADER);
+            final boolean fail = attempts.incrementAndGet() == 1
+                    || !WebhookSender.sign(SECRET, timestamp, body).equals(signature);
+            if (!fail) {
+                deliveries.add(new String(body, StandardCharsets.UTF_8));
+            }
+            exchange.sendResponseHeaders(fail ? 500 : 204, -1);
+            exchange.close();
+        });
+        receiver.start();
+        try {
+            final String url = "http://localhost:" + receiver.getAddress().getPort() + RECEIVER_PATH;
+            utils.createNewWebhook(new WebhookDto(url, TASK_CREATED, SECRET), existingUserEmail)
+                    .andExpect(status().isCreated());
+            createTasks();
+
+            final String delivered = awaitDelivery(deliveries, SECOND_TASK_NAME);
+            assertThat(delivered).contains(TASK_CREATED).contains(FIRST_TASK_NAME);
+            assertThat(attempts.get()).isGreaterThan(1);
+            // Delivered rows are deleted
+            assertThat(awaitCondition(() -> webhookDeliveryRepository.count() == 0)).isTrue();
+        } finally {
+            receiver.stop(0);
+        }
+    }
+
+    @Test
+    void testInternalAddressIsRefused() throws Exception {
+        final AtomicInteger requests = new AtomicInteger();
+        final HttpServer receiver = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        receiver.createContext(RECEIVER_PATH, exchange -> {
+            requests.incrementAndGet();
+            exchange.sendResponseHeaders(204, -1);
+            exchange.close();
+        });
+        receiver.start();
+        try {
+            final var refused = meterRegistry.get(WebhookDispatcher.PARKED_METRIC_NAME)
+                    .tag("reason", "address_refused")
+                    .counter();
+            final double refusedBefore = refused.count();
+            // Only the localhost name is allowed in tests, the loopback address itself is not
+            final String url = "http://127.0.0.1:" + receiver.getAddress().getPort() + RECEIVER_PATH;
+            utils.createNewWebhook(new WebhookDto(url, TASK_CREATED, SECRET), existingUserEmail)
+                    .andExpect(status().isCreated());
+            createTasks();
+
+            assertThat(awaitCondition(() -> countParked() == 2)).isTrue();
+            assertThat(refused.count()).isEqualTo(refusedBefore + 2);
+            assertEquals(0, requests.get());
+        } finally {
+            receiver.stop(0);
+        }
+    }
+
+    @Test
+    void testFailedDeliveriesAreKeptUntilParked() throws Exception {
+        final AtomicInteger attempts = new AtomicInteger();
+        final HttpServer receiver = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        receiver.createContext(RECEIVER_PATH, exchange -> {
+            attempts.incrementAndGet();
+            exchange.sendResponseHeaders(503, -1);
+            exchange.close();
+        });
+        receiver.start();
+        try {
+            final String url = "http://localhost:" + receiver.getAddress().getPort() + RECEIVER_PATH;
+            utils.createNewWebhook(new WebhookDto(url, TASK_CREATED, SECRET), existingUserEmail)
+                    .andExpect(status().isCreated());
+            createTasks();
+
+            // Both events are sent in one batch, which is parked after the last of 3 attempts
+            assertThat(awaitCondition(() -> countParked() == 2)).isTrue();
+            final List<WebhookDelivery> deliveries = webhookDeliveryRepository.findAll();
+            assertThat(deliveries).allMatch(delivery -> delivery.getAttempts() == 3
+                    && delivery.getLastError().contains("503"));
+            assertThat(attempts.get()).isGreaterThanOrEqualTo(3);
+        } finally {
+            receiver.stop(0);
+        }
+    }
+
+    @Nested
+    class GetDeleteTests {
+        private static Long webhookId;
+
+        @BeforeEach
+        public void createFirstWebhook() throws Exception {
+            utils.createNewWebhook(new WebhookDto(RECEIVER_URL, TASK_CREATED, SECRET), existingUserEmail);
+            webhookId = webhookRepository.findAll().get(0).getId();
+        }
+
+        @Test
+        void testGetAllWebhooksOfCurrentUser() throws Exception {
+            utils.createNewWebhook(new WebhookDto(RECEIVER_URL, TASK_DELETED, SECRET), existingUserEmail);
+            utils.createNewUser(SECOND_USER);
+            utils.createNewWebhook(new WebhookDto(RECEIVER_URL, TASK_CREATED, SECRET), SECOND_USER.getEmail())
+                    .andExpect(status().isCreated());
+
+            final var response = utils.performAuthorizedRequest(get(WEBHOOK_CONTROLLER_PATH), existingUserEmail)
+                    .andExpect(status().isOk())
+                    .andReturn()
+                    .getResponse();
+
+            final List<Webhook> webhooks = getInfoFromJson(response.getContentAsString(), new TypeReference<>() { });
+            assertEquals(2, webhooks.size());
+            assertThat(webhooks).allMatch(webhook -> webhook.getUrl().equals(RECEIVER_URL));
+            assertThat(response.getContentAsString()).doesNotContain(SECRET);
+        }
+
+        @Test
+        void testGetWebhookOfAnotherUserFail() throws Exception {
+            utils.createNewUser(SECOND_USER);
+
+            utils.performAuthorizedRequest(get(WEBHOOK_CONTROLLER_PATH + ID, webhookId), SECOND_USER.getEmail())
+                    .andExpect(status().isForbidden());
+            utils.performAuthorizedRequest(get(WEBHOOK_CONTROLLER_PATH + ID, webhookId + 1), existingUserEmail)
+                    .andExpect(status().isNotFound());
+        }
+
+        @Test
+        void testCreateDuplicateWebhookFail() throws Exception {
+            utils.createNewWebhook(new WebhookDto(RECEIVER_URL, TASK_CREATED, SECRET), existingUserEmail)
+                    .andExpect(status().isUnprocessableEntity());
+
+            assertEquals(ONE_ITEM_REPOSITORY_SIZE, webhookRepository.count());
+        }
+
+        @Test
+        void testDeleteWebhook() throws Exception {
+            utils.performAuthorizedRequest(delete(WEBHOOK_CONTROLLER_PATH + ID, webhookId), existingUserEmail)
+                    .andExpect(status().isOk());
+
+            assertEquals(EMPTY_REPOSITORY_SIZE, webhookRepository.count());
+        }
+
+        @Test
+        void testDeleteWebhookOfAnotherUserFail() throws Exception {
+            utils.createNewUser(SECOND_USER);
+
+            utils.performAuthorizedRequest(delete(WEBHOOK_CONTROLLER_PATH + ID, webhookId), SECOND_USER.getEmail())
+                    .andExpect(status().isForbidden());
+
+            assertEquals(ONE_ITEM_REPOSITORY_SIZE, webhookRepository.count());
+        }
+    }
+
+    private void createTasks() throws Exception {
+        utils.createNewTaskStatus(NEW_TASK_STATUS, existingUserEmail);
+        final User user = utils.getUserByEmail(existingUserEmail);
+        final Long taskStatusId = taskStatusRepository.findAll().get(0).getId();
+        utils.createNewTask(new TaskDto(FIRST_TASK_NAME, null, taskStatusId, user.getId(), Set.of()),
+                        existingUserEmail)
+                .andExpect(status().isCreated());
+        utils.createNewTask(new TaskDto(SECOND_TASK_NAME, null, taskStatusId, user.getId(), Set.of()),
+                        existingUserEmail)
+                .andExpect(status().isCreated());
+    }
+
+    private long countParked() {
+        return webhookDeliveryRepository.findAll().stream()
+                .filter(delivery -> delivery.getParkedAt() != null)
+                .count();
+    }
+
+    private static boolean awaitCondition(final BooleanSupplier condition) throws InterruptedException {
+        final long deadline = System.currentTimeMillis() + DELIVERY_TIMEOUT_MILLIS;
+        while (!condition.getAsBoolean()) {
+            if (System.currentTimeMillis() > deadline) {
+                return false;
+            }
+            Thread.sleep(DELIVERY_POLL_MILLIS);
+        }
+        return true;
+    }
+
+    private static String awaitDelivery(final Queue<String> deliveries, final String expected)
+            throws InterruptedException, IOException {
+        final long deadline = System.currentTimeMillis() + DELIVERY_TIMEOUT_MILLIS;
+        while (System.currentTimeMillis() < deadline) {
+            final String delivered = String.join("", deliveries);
+            if (delivered.contains(expected)) {
+                return delivered;
+            }
+            Thread.sleep(DELIVERY_POLL_MILLIS);
+        }
+        throw new IOException("Webhook with " + expected + " is not delivered");
+    }
+}
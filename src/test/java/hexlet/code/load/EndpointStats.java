@@ -0,0 +1,76 @@
+package hexlet.code.load;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latencies and errors of one endpoint collected by all load test workers.
+ */
+class EndpointStats {
+    private static final double NANOS_IN_MILLI = 1_000_000.0;
+
+    private final String endpoint;
+    private final Queue<Long> latencies = new ConcurrentLinkedQueue<>();
+    private final LongAdder errors = new LongAdder();
+
+    EndpointStats(final String endpoint) {
+        this.endpoint = endpoint;
+    }
+
+    void record(final long latencyNanos, final boolean success) {
+        latencies.add(latencyNanos);
+        if (!success) {
+            errors.increment();
+        }
+    }
+
+    String getEndpoint() {
+        return endpoint;
+    }
+
+    long getRequests() {
+        return latencies.size();
+    }
+
+    long getErrors() {
+        return errors.sum();
+    }
+
+    double getErrorRate() {
+        return getRequests() == 0 ? 0 : (double) getErrors() / getRequests();
+    }
+
+    String toCsv(final Duration elapsed) {
+        final long[] sorted = latencies.stream().mapToLong(Long::longValue).sorted().toArray();
+        return String.join(",",
+                endpoint,
+                String.valueOf(sorted.length),
+                String.valueOf(getErrors()),
+                format(sorted.length * 1000.0 / elapsed.toMillis()),
+                format(percentile(sorted, 0.5) / NANOS_IN_MILLI),
+                format(percentile(sorted, 0.95) / NANOS_IN_MILLI),
+                format(percentile(sorted, 0.99) / NANOS_IN_MILLI),
+                format((sorted.length == 0 ? 0 : sorted[sorted.length - 1]) / NANOS_IN_MILLI));
+    }
+
+    // Nearest-rank percentile
+    private static long percentile(final long[] sorted, final double quantile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        final int rank = (int) Math.ceil(quantile * sorted.length);
+        return sorted[Math.max(rank - 1, 0)];
+    }
+
+    private static String format(final double value) {
+        return String.format(Locale.ROOT, "%.2f", value);
+    }
+
+    static String csvHeader() {
+        return String.join(",",
+                "endpoint", "requests", "errors", "throughput_rps", "p50_ms", "p95_ms", "p99_ms", "max_ms");
+    }
+}
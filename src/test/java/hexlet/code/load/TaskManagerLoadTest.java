@@ -0,0 +1,329 @@
+package hexlet.code.load;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import hexlet.code.config.SpringConfigForIT;
+import hexlet.code.dto.LabelDto;
+import hexlet.code.dto.LoginDto;
+import hexlet.code.dto.TaskDto;
+import hexlet.code.dto.TaskStatusDto;
+import hexlet.code.dto.UserDto;
+import hexlet.code.entity.Label;
+import hexlet.code.entity.Task;
+import hexlet.code.entity.TaskStatus;
+import hexlet.code.entity.User;
+import hexlet.code.repository.LabelRepository;
+import hexlet.code.repository.TaskRepository;
+import hexlet.code.repository.TaskStatusRepository;
+import hexlet.code.repository.UserRepository;
+import hexlet.code.utils.TestUtils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.autoconfigure.web.servlet.MockMvcPrint;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static hexlet.code.config.SpringConfigForIT.TEST_PROFILE;
+import static hexlet.code.config.security.SecurityConfig.LOGIN;
+import static hexlet.code.controller.TaskController.TASK_CONTROLLER_PATH;
+import static hexlet.code.utils.TestUtils.FIRST_USER;
+import static hexlet.code.utils.TestUtils.NEW_TASK_STATUS;
+import static hexlet.code.utils.TestUtils.asJson;
+import static hexlet.code.utils.TestUtils.getInfoFromJson;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.boot.test.context.SpringBootTest.WebEnvironment.RANDOM_PORT;
+import static org.springframework.http.HttpHeaders.AUTHORIZATION;
+import static org.springframework.http.HttpHeaders.CONTENT_TYPE;
+import static org.springframework.http.HttpHeaders.RETRY_AFTER;
+import static org.springframework.http.HttpStatus.SERVICE_UNAVAILABLE;
+import static org.springframework.http.MediaType.APPLICATION_JSON_VALUE;
+
+/**
+ * HTTP load test of the task endpoints, excluded from {@code ./gradlew test}.
+ * Run with {@code ./gradlew loadTest}, see build.gradle for the parameters.
+ */
+@Tag("load")
+@SpringBootTest(webEnvironment = RANDOM_PORT, classes = SpringConfigForIT.class, properties = {
+    "spring.jpa.show-sql=false",
+    "spring.jpa.properties.hibernate.generate_statistics=false",
+    // Same pool as the application has in both thread modes
+    "spring.datasource.hikari.maximum-pool-size=${DB_POOL_SIZE:20}",
+    "spring.datasource.hikari.minimum-idle=${DB_POOL_SIZE:20}"
+})
+@AutoConfigureMockMvc(print = MockMvcPrint.NONE)
+@ActiveProfiles(TEST_PROFILE)
+@ExtendWith(SpringExtension.class)
+class TaskManagerLoadTest {
+    private static final String LOGIN_ENDPOINT = "POST " + LOGIN;
+    private static final String LIST_ENDPOINT = "GET " + TASK_CONTROLLER_PATH;
+    private static final String GET_ENDPOINT = "GET " + TASK_CONTROLLER_PATH + "/{id}";
+    private static final String CREATE_ENDPOINT = "POST " + TASK_CONTROLLER_PATH;
+    private static final String UPDATE_ENDPOINT = "PUT " + TASK_CONTROLLER_PATH + "/{id}";
+    private static final String DELETE_ENDPOINT = "DELETE " + TASK_CONTROLLER_PATH + "/{id}";
+    private static final String[] FILTERS = {"taskStatus", "executorId", "labels", "authorId"};
+    private static final int PAGE_SIZE = 20;
+
+    @Value("${base-url}")
+    private String baseUrl;
+    @LocalServerPort
+    private int port;
+
+    @Value("${load-test.users:20}")
+    private int usersCount;
+    @Value("${load-test.task-statuses:5}")
+    private int taskStatusesCount;
+    @Value("${load-test.labels:10}")
+    private int labelsCount;
+    @Value("${load-test.tasks:500}")
+    private int tasksCount;
+    @Value("${load-test.concurrency:8}")
+    private int concurrency;
+    @Value("${load-test.warmup:10s}")
+    private Duration warmup;
+    @Value("${load-test.duration:30s}")
+    private Duration duration;
+    @Value("${load-test.max-error-rate:0.01}")
+    private double maxErrorRate;
+    @Value("${load-test.report:build/reports/load-test/summary.csv}")
+    private Path report;
+
+    @Autowired
+    private TestUtils utils;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private TaskStatusRepository taskStatusRepository;
+    @Autowired
+    private LabelRepository labelRepository;
+    @Autowired
+    private TaskRepository taskRepository;
+
+    private final HttpClient client = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+
+    private List<UserDto> users;
+    private List<Long> userIds;
+    private List<Long> taskStatusIds;
+    private List<Long> labelIds;
+    private List<Long> taskIds;
+
+    @BeforeEach
+    public void seed() throws Exception {
+        users = new ArrayList<>();
+        for (int i = 0; i < usersCount; i++) {
+            final UserDto user = new UserDto("load_" + i + "_" + FIRST_USER.getEmail(),
+                    FIRST_USER.getFirstName(), FIRST_USER.getLastName(), FIRST_USER.getPassword());
+            utils.createNewUser(user);
+            users.add(user);
+        }
+        final String seeder = users.get(0).getEmail();
+        for (int i = 0; i < taskStatusesCount; i++) {
+            utils.createNewTaskStatus(new TaskStatusDto(NEW_TASK_STATUS.getName() + " " + i), seeder);
+        }
+        for (int i = 0; i < labelsCount; i++) {
+            utils.createNewLabel(new LabelDto("Label " + i), seeder);
+        }
+        userIds = userRepository.findAll().stream().map(User::getId).toList();
+        taskStatusIds = taskStatusRepository.findAll().stream().map(TaskStatus::getId).toList();
+        labelIds = labelRepository.findAll().stream().map(Label::getId).toList();
+
+        for (int i = 0; i < tasksCount; i++) {
+            utils.createNewTask(randomTask("Seeded task " + i), users.get(i % usersCount).getEmail());
+        }
+        taskIds = taskRepository.findAll().stream().map(Task::getId).toList();
+    }
+
+    @AfterEach
+    public void clear() {
+        utils.tearDown();
+    }
+
+    @Test
+    public void testTaskEndpointsUnderLoad() throws Exception {
+        System.out.printf("Seeded %d users, %d task statuses, %d labels, %d tasks%n",
+                usersCount, taskStatusesCount, labelsCount, tasksCount);
+
+        run(warmup);
+        final long start = System.nanoTime();
+        final Map<String, EndpointStats> stats = run(duration);
+        final Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+
+        final List<String> lines = new ArrayList<>();
+        lines.add(EndpointStats.csvHeader());
+        stats.values().stream()
+                .sorted((first, second) -> first.getEndpoint().compareTo(second.getEndpoint()))
+                .forEach(endpoint -> lines.add(endpoint.toCsv(elapsed)));
+        final long total = stats.values().stream().mapToLong(EndpointStats::getRequests).sum();
+        lines.forEach(System.out::println);
+        System.out.printf("%d requests in %d ms with %d workers, %.1f req/s%n",
+                total, elapsed.toMillis(), concurrency, total * 1000.0 / elapsed.toMillis());
+
+        Files.createDirectories(report.toAbsolutePath().getParent());
+        Files.write(report, lines);
+
+        stats.values().forEach(endpoint ->
+                assertThat(endpoint.getErrorRate()).as(endpoint.getEndpoint()).isLessThanOrEqualTo(maxErrorRate));
+    }
+
+    private Map<String, EndpointStats> run(final Duration runDuration) throws Exception {
+        final Map<String, EndpointStats> stats = new ConcurrentHashMap<>();
+        final long deadline = System.nanoTime() + runDuration.toNanos();
+        final ExecutorService executor = Executors.newFixedThreadPool(concurrency);
+        try {
+            final List<Future<?>> workers = new ArrayList<>();
+            for (int i = 0; i < concurrency; i++) {
+                final UserDto user = users.get(i % usersCount);
+                workers.add(executor.submit(() -> new Worker(user, stats).runUntil(deadline)));
+            }
+            for (Future<?> worker : workers) {
+                worker.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        return stats;
+    }
+
+    private TaskDto randomTask(final String name) {
+        return new TaskDto(name, "Load test task",
+                randomOf(taskStatusIds),
+                randomOf(userIds),
+                new HashSet<>(List.of(randomOf(labelIds), randomOf(labelIds))));
+    }
+
+    private static Long randomOf(final List<Long> ids) {
+        return ids.get(ThreadLocalRandom.current().nextInt(ids.size()));
+    }
+
+    /**
+     * One virtual user: logs in once and then sends a weighted mix of requests as fast as it can.
+     * Tasks it created are later updated and deleted by it, since only the author may delete a task.
+     */
+    private final class Worker {
+        private final UserDto user;
+        private final Map<String, EndpointStats> stats;
+        private final Deque<Long> ownTasks = new ArrayDeque<>();
+        private String token;
+
+        Worker(final UserDto user, final Map<String, EndpointStats> stats) {
+            this.user = user;
+            this.stats = stats;
+        }
+
+        Void runUntil(final long deadline) throws IOException, InterruptedException {
+            login();
+            while (System.nanoTime() < deadline) {
+                final int dice = ThreadLocalRandom.current().nextInt(100);
+                if (dice < 5) {
+                    login();
+                } else if (dice < 55) {
+                    list();
+                } else if (dice < 70) {
+                    send(GET_ENDPOINT, request("/" + randomOf(taskIds)).GET());
+                } else if (dice < 85 || ownTasks.isEmpty()) {
+                    create();
+                } else if (dice < 95) {
+                    send(UPDATE_ENDPOINT, request("/" + ownTasks.peekLast())
+                            .PUT(json(randomTask("Updated task"))));
+                } else {
+                    send(DELETE_ENDPOINT, request("/" + ownTasks.pollFirst()).DELETE());
+                }
+            }
+            return null;
+        }
+
+        // A login shed by the password check pool is retried after Retry-After, as a client would do.
+        // The recorded latency includes the waits
+        private void login() throws IOException, InterruptedException {
+            final HttpRequest request = HttpRequest.newBuilder(uri(LOGIN))
+                    .header(CONTENT_TYPE, APPLICATION_JSON_VALUE)
+                    .POST(json(new LoginDto(user.getEmail(), user.getPassword())))
+                    .build();
+            final long start = System.nanoTime();
+            HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+            while (response.statusCode() == SERVICE_UNAVAILABLE.value()) {
+                Thread.sleep(response.headers().firstValueAsLong(RETRY_AFTER).orElse(1) * 1000);
+                response = client.send(request, HttpResponse.BodyHandlers.ofString());
+            }
+            record(LOGIN_ENDPOINT, start, response);
+            if (response.statusCode() == 200) {
+                token = response.body().trim();
+            }
+        }
+
+        private void list() throws IOException, InterruptedException {
+            final String filter = FILTERS[ThreadLocalRandom.current().nextInt(FILTERS.length)];
+            final Long value = switch (filter) {
+                case "taskStatus" -> randomOf(taskStatusIds);
+                case "labels" -> randomOf(labelIds);
+                default -> randomOf(userIds);
+            };
+            send(LIST_ENDPOINT, request("/?size=" + PAGE_SIZE + "&" + filter + "=" + value).GET());
+        }
+
+        private void create() throws IOException, InterruptedException {
+            final HttpResponse<String> response = send(CREATE_ENDPOINT, request("/")
+                    .POST(json(randomTask("Created task"))));
+            if (response.statusCode() == 201 || response.statusCode() == 200) {
+                final Map<String, Object> task = getInfoFromJson(response.body(), new TypeReference<>() { });
+                ownTasks.addLast(((Number) task.get("id")).longValue());
+            }
+        }
+
+        private HttpRequest.Builder request(final String path) {
+            return HttpRequest.newBuilder(uri(TASK_CONTROLLER_PATH + path))
+                    .header(AUTHORIZATION, "Bearer " + token)
+                    .header(CONTENT_TYPE, APPLICATION_JSON_VALUE);
+        }
+
+        private HttpResponse<String> send(final String endpoint, final HttpRequest.Builder request)
+                throws IOException, InterruptedException {
+            final long start = System.nanoTime();
+            final HttpResponse<String> response = client.send(request.build(), HttpResponse.BodyHandlers.ofString());
+            record(endpoint, start, response);
+            return response;
+        }
+
+        private void record(final String endpoint, final long start, final HttpResponse<String> response) {
+            final long latency = System.nanoTime() - start;
+            stats.computeIfAbsent(endpoint, EndpointStats::new)
+                    .record(latency, response.statusCode() < 400);
+        }
+    }
+
+    private URI uri(final String path) {
+        return URI.create("http://localhost:" + port + baseUrl + path);
+    }
+
+    private static HttpRequest.BodyPublisher json(final Object body) throws IOException {
+        return HttpRequest.BodyPublishers.ofString(asJson(body));
+    }
+}
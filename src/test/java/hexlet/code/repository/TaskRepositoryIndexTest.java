@@ -0,0 +1,109 @@
+package hexlet.code.repository;
+
+import hexlet.code.component.metrics.QueryRecorder;
+import hexlet.code.component.metrics.QueryRecorder.Queries;
+import hexlet.code.component.metrics.QueryRecorder.Query;
+import hexlet.code.config.SpringConfigForIT;
+import hexlet.code.service.TaskService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+
+import static hexlet.code.config.SpringConfigForIT.TEST_PROFILE;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks the indexes of the filtered task list created by the changelog. H2 indexes foreign key columns on its own,
+ * so for them the test checks that the changelog index exists on the column, and only the ordering index, which
+ * nothing else would create, is checked in the plan of the page query Hibernate generates.
+ */
+@SpringBootTest(classes = SpringConfigForIT.class)
+@ActiveProfiles(TEST_PROFILE)
+@ExtendWith(SpringExtension.class)
+class TaskRepositoryIndexTest {
+    private static final int PAGE_SIZE = 20;
+    // Position of a task created at 2020-01-01T00:00:00Z with id 1, encoded as the task list does
+    private static final String CURSOR = Base64.getUrlEncoder().withoutPadding()
+            .encodeToString("1577836800000:1".getBytes(StandardCharsets.UTF_8));
+    private static final String TABLE_SCAN = "tableScan";
+
+    @Autowired
+    private TaskService taskService;
+    @Autowired
+    private QueryRecorder queryRecorder;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void testTaskStatusColumnIsIndexed() {
+        assertThat(getIndexColumns("TASKS", "IDX_TASKS_TASK_STATUS_ID")).containsExactly("TASK_STATUS_ID");
+    }
+
+    @Test
+    void testExecutorColumnIsIndexed() {
+        assertThat(getIndexColumns("TASKS", "IDX_TASKS_EXECUTOR_ID")).containsExactly("EXECUTOR_ID");
+    }
+
+    @Test
+    void testAuthorColumnIsIndexed() {
+        assertThat(getIndexColumns("TASKS", "IDX_TASKS_AUTHOR_ID")).containsExactly("AUTHOR_ID");
+    }
+
+    @Test
+    void testLabelColumnIsIndexed() {
+        assertThat(getIndexColumns("TASK_LABEL", "IDX_TASK_LABEL_LABEL_ID")).containsExactly("LABEL_ID");
+    }
+
+    @Test
+    void testPageByCreationTimeUsesIndex() {
+        final String plan = explain(recordPageQuery(CURSOR));
+
+        assertThat(plan).contains("IDX_TASKS_CREATED_AT_ID");
+        assertThat(plan).doesNotContain(TABLE_SCAN);
+    }
+
+    // Columns of the index, rows of an index come ordered by position. Empty if there is no such index
+    private List<String> getIndexColumns(final String table, final String index) {
+        return jdbcTemplate.execute((ConnectionCallback<List<String>>) connection -> {
+            final List<String> columns = new ArrayList<>();
+            try (ResultSet indexInfo = connection.getMetaData().getIndexInfo(null, null, table, false, false)) {
+                while (indexInfo.next()) {
+                    if (index.equals(indexInfo.getString("INDEX_NAME"))) {
+                        columns.add(indexInfo.getString("COLUMN_NAME"));
+                    }
+                }
+            }
+            return columns;
+        });
+    }
+
+    private String recordPageQuery(final String cursor) {
+        // The first page loads the cached lists of statuses and labels its version is stamped with
+        taskService.getTasksPage(null, cursor, PAGE_SIZE);
+        final Queries recorded = queryRecorder.start();
+        try {
+            taskService.getTasksPage(null, cursor, PAGE_SIZE);
+        } finally {
+            queryRecorder.stop();
+        }
+        final List<Query> queries = recorded.getMostRepeated(Integer.MAX_VALUE);
+        assertThat(queries).hasSize(1);
+        return queries.get(0).getSql();
+    }
+
+    // H2 plans a statement without values of its parameters
+    private String explain(final String sql) {
+        return jdbcTemplate.queryForObject("EXPLAIN " + sql, String.class);
+    }
+}
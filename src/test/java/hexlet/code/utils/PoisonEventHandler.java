@@ -0,0 +1,23 @@
+package hexlet.code.utils;
+
+import hexlet.code.component.outbox.OutboxEventHandler;
+import hexlet.code.entity.OutboxEvent;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Fails every outbox batch that holds an event of a task with the poison name, the way a handler fails on an event
+ * it can't process.
+ */
+@Component
+public class PoisonEventHandler implements OutboxEventHandler {
+    public static final String POISON_TASK_NAME = "Poison task";
+
+    @Override
+    public void handle(final List<OutboxEvent> events) {
+        if (events.stream().anyMatch(event -> event.getPayload().contains(POISON_TASK_NAME))) {
+            throw new IllegalStateException("Can't handle " + POISON_TASK_NAME);
+        }
+    }
+}
@@ -5,28 +5,41 @@ import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import hexlet.code.component.JWTUtils;
 import hexlet.code.dto.LabelDto;
+import hexlet.code.dto.TaskBatchDto;
 import hexlet.code.dto.TaskDto;
+import hexlet.code.dto.TaskPatchDto;
 import hexlet.code.dto.TaskStatusDto;
 import hexlet.code.dto.UserDto;
+import hexlet.code.dto.WebhookDto;
 import hexlet.code.entity.User;
 import hexlet.code.repository.LabelRepository;
+import hexlet.code.repository.OutboxEventRepository;
 import hexlet.code.repository.TaskRepository;
 import hexlet.code.repository.TaskStatusRepository;
 import hexlet.code.repository.UserRepository;
+import hexlet.code.repository.WebhookRepository;
+import java.util.HashMap;
 import java.util.Map;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.CacheManager;
 import org.springframework.stereotype.Component;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.ResultActions;
 import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
 
+import static hexlet.code.component.JWTUtils.USER_ID_CLAIM;
 import static hexlet.code.controller.LabelController.LABEL_CONTROLLER_PATH;
+import static hexlet.code.controller.TaskController.BATCH;
 import static hexlet.code.controller.TaskController.TASK_CONTROLLER_PATH;
 import static hexlet.code.controller.TaskStatusController.TASK_STATUS_CONTROLLER_PATH;
 import static hexlet.code.controller.UserController.ID;
 import static hexlet.code.controller.UserController.USER_CONTROLLER_PATH;
+import static hexlet.code.controller.WebhookController.WEBHOOK_CONTROLLER_PATH;
 import static org.springframework.http.HttpHeaders.AUTHORIZATION;
 import static org.springframework.http.MediaType.APPLICATION_JSON;
+import static org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter.SPRING_SECURITY_FORM_USERNAME_KEY;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
 
@@ -88,8 +101,9 @@ public class TestUtils {
             ""
     );
 
+    // Resolved on use, contexts without MockMvc still load
     @Autowired
-    private MockMvc mockMvc;
+    private ObjectProvider<MockMvc> mockMvc;
 
     @Autowired
     private UserRepository userRepository;
@@ -98,16 +112,25 @@ public class TestUtils {
     @Autowired
     private TaskRepository taskRepository;
     @Autowired
+    private CacheManager cacheManager;
+    @Autowired
     private LabelRepository labelRepository;
+    @Autowired
+    private WebhookRepository webhookRepository;
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
 
     @Autowired
     private JWTUtils jwtUtils;
 
     public void tearDown() {
+        webhookRepository.deleteAll();
         taskRepository.deleteAll();
         taskStatusRepository.deleteAll();
         userRepository.deleteAll();
         labelRepository.deleteAll();
+        outboxEventRepository.deleteAllInBatch();
+        cacheManager.getCacheNames().forEach(name -> cacheManager.getCache(name).clear());
     }
 
     public User getUserByEmail(final String email) {
@@ -163,6 +186,14 @@ public class TestUtils {
                 .contentType(APPLICATION_JSON);
     }
 
+    public ResultActions createNewWebhook(final WebhookDto webhookDto, final String email) throws Exception {
+        final var request = post(WEBHOOK_CONTROLLER_PATH)
+                .content(asJson(webhookDto))
+                .contentType(APPLICATION_JSON);
+
+        return performAuthorizedRequest(request, email);
+    }
+
     public ResultActions createNewTask(final TaskDto taskDto, final String email) throws Exception {
         final var request = post(TASK_CONTROLLER_PATH)
                 .content(asJson(taskDto))
@@ -179,17 +210,51 @@ public class TestUtils {
                 .contentType(APPLICATION_JSON);
     }
 
+    public MockHttpServletRequestBuilder createTaskPatchRequest(
+            final Long taskIdToUpdate,
+            final TaskPatchDto taskPatchDto) throws JsonProcessingException {
+        return patch(TASK_CONTROLLER_PATH + ID, taskIdToUpdate)
+                .content(asJson(taskPatchDto))
+                .contentType(APPLICATION_JSON);
+    }
+
+    public MockHttpServletRequestBuilder createTaskBatchRequest(
+            final TaskBatchDto taskBatchDto) throws JsonProcessingException {
+        return post(TASK_CONTROLLER_PATH + BATCH)
+                .content(asJson(taskBatchDto))
+                .contentType(APPLICATION_JSON);
+    }
+
     public ResultActions performAuthorizedRequest(
             final MockHttpServletRequestBuilder request,
             final String userEmail) throws Exception {
-        final String token = jwtUtils.createJWSToken(Map.of("username", userEmail));
+        final Map<String, Object> claims = new HashMap<>();
+        claims.put(SPRING_SECURITY_FORM_USERNAME_KEY, userEmail);
+        userRepository.findByEmail(userEmail).ifPresent(user -> claims.put(USER_ID_CLAIM, user.getId()));
+
+        return performRequestWithToken(request, claims);
+    }
+
+    public ResultActions performAuthorizedRequest(
+            final MockHttpServletRequestBuilder request,
+            final User user) throws Exception {
+        return performRequestWithToken(request, Map.of(
+                SPRING_SECURITY_FORM_USERNAME_KEY, user.getEmail(),
+                USER_ID_CLAIM, user.getId()
+        ));
+    }
+
+    private ResultActions performRequestWithToken(
+            final MockHttpServletRequestBuilder request,
+            final Map<String, Object> claims) throws Exception {
+        final String token = jwtUtils.createJWSToken(claims);
         request.header(AUTHORIZATION, token);
 
-        return mockMvc.perform(request);
+        return mockMvc.getObject().perform(request);
     }
 
     public ResultActions performUnauthorizedRequest(final MockHttpServletRequestBuilder request) throws Exception {
-        return mockMvc.perform(request);
+        return mockMvc.getObject().perform(request);
     }
 
     private static final ObjectMapper MAPPER = new ObjectMapper().findAndRegisterModules();